@@ -0,0 +1,91 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * La classe EmptyTilesBenchmark mesure le temps de recherche des tuiles vides d'une
+ * carte, pour plusieurs tailles de carte.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmptyTilesBenchmark {
+
+    /**
+     * Le nombre de lignes et de colonnes de la carte.
+     */
+    @Param({ "13", "64", "256", "1024" })
+    public int size;
+
+    /**
+     * La carte dans laquelle les tuiles vides sont cherchées.
+     */
+    private GameMap map;
+
+    /**
+     * Crée la carte.
+     */
+    @Setup
+    public void setUp() {
+        map = GameMapFactory.createMap(
+                GameConfiguration.largeArena(size, size, 0), new SplittableRandom(42));
+    }
+
+    /**
+     * Donne la liste des tuiles vides de la carte.
+     *
+     * @return La liste des tuiles vides.
+     */
+    @Benchmark
+    public List<Tile> getEmptyTiles() {
+        return map.getEmptyTiles();
+    }
+
+    /**
+     * Compte les tuiles vides de la carte.
+     *
+     * @return Le nombre de tuiles vides.
+     */
+    @Benchmark
+    public int countEmptyTiles() {
+        return map.countEmptyTiles();
+    }
+
+}
@@ -0,0 +1,144 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * La classe ExplosionBenchmark mesure le coût de l'explosion d'une bombe, pour chaque
+ * type de bombe.
+ * Chaque explosion a lieu dans une copie fraîche de la même partie, au centre d'une carte
+ * contenant des briques et des ennemis.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExplosionBenchmark {
+
+    /**
+     * Le nom du type de bombe qui explose.
+     */
+    @Param({ "bomb", "row-bomb", "column-bomb", "large-bomb" })
+    public String type;
+
+    /**
+     * La partie dans laquelle les bombes explosent, encodée pour pouvoir en créer une
+     * copie fraîche avant chaque explosion.
+     */
+    private ByteBuffer encodedGame;
+
+    /**
+     * Le code du type de bombe qui explose.
+     */
+    private byte typeCode;
+
+    /**
+     * La ligne et la colonne de la tuile où la bombe est déposée.
+     */
+    private int row;
+    private int column;
+
+    /**
+     * La copie de la partie dans laquelle la bombe va exploser.
+     */
+    private GameFacade game;
+
+    /**
+     * La bombe qui va exploser.
+     */
+    private AbstractBomb bomb;
+
+    /**
+     * Crée la partie, et choisit la tuile libre la plus proche du centre de la carte pour
+     * y déposer les bombes.
+     */
+    @Setup(Level.Trial)
+    public void setUpGame() {
+        GameFacade original = new GameFacade(GameConfiguration.largeArena(31, 31, 20), 42);
+        original.startGame();
+        encodedGame = original.createSnapshot().encode();
+        typeCode = -1;
+        for (byte code = 0; typeCode < 0; code++) {
+            if (GameSnapshot.createBomb(code, original).getName().equals(type)) {
+                typeCode = code;
+            }
+        }
+
+        GameMap map = original.getGameMap();
+        row = map.getHeight() / 2;
+        column = map.getWidth() / 2;
+        while (!map.isEmpty(row, column)) {
+            column++;
+        }
+        original.shutdown();
+    }
+
+    /**
+     * Crée une copie fraîche de la partie, et y dépose une bombe.
+     *
+     * @throws IOException Si la partie encodée ne peut pas être décodée.
+     */
+    @Setup(Level.Invocation)
+    public void setUpBomb() throws IOException {
+        game = GameFacade.restore(GameSnapshot.decode(encodedGame.duplicate()));
+        bomb = GameSnapshot.createBomb(typeCode, game);
+        game.placeBomb(bomb, row, column);
+    }
+
+    /**
+     * Arrête la copie de la partie.
+     */
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        game.shutdown();
+    }
+
+    /**
+     * Fait exploser la bombe.
+     *
+     * @return La bombe qui a explosé.
+     */
+    @Benchmark
+    public AbstractBomb explode() {
+        bomb.explode();
+        return bomb;
+    }
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * La classe MapGenerationBenchmark mesure le temps de génération d'une carte dont les
+ * murs de briques sont placés au hasard, pour plusieurs tailles de carte.
+ * Les briques occupent 30 % des tuiles, comme dans la configuration standard.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapGenerationBenchmark {
+
+    /**
+     * Le nombre de lignes et de colonnes de la carte générée.
+     */
+    @Param({ "13", "64", "256", "1024" })
+    public int size;
+
+    /**
+     * Le nombre de murs de briques à placer.
+     */
+    private int nWalls;
+
+    /**
+     * Le générateur de nombres aléatoires utilisé pour placer les briques.
+     */
+    private SplittableRandom random;
+
+    /**
+     * Prépare la génération des cartes.
+     */
+    @Setup
+    public void setUp() {
+        nWalls = (int) (size * size * 0.3);
+        random = new SplittableRandom(42);
+    }
+
+    /**
+     * Génère une carte.
+     *
+     * @return La carte générée.
+     */
+    @Benchmark
+    public GameMap createMapWithRandomBrickWalls() {
+        return GameMapFactory.createMapWithRandomBrickWalls(size, size, nWalls, random);
+    }
+
+}
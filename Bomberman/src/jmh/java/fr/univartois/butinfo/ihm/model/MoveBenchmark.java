@@ -0,0 +1,115 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * La classe MoveBenchmark mesure le coût des déplacements des personnages, selon le
+ * nombre d'ennemis présents sur la carte.
+ * La carte est agrandie avec le nombre d'ennemis, de sorte qu'ils en occupent toujours à
+ * peu près la même proportion.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveBenchmark {
+
+    /**
+     * Le nombre d'ennemis de la partie.
+     */
+    @Param({ "1", "10", "100", "1000", "10000" })
+    public int enemies;
+
+    /**
+     * La partie dans laquelle les personnages se déplacent.
+     */
+    private GameFacade game;
+
+    /**
+     * Le joueur de la partie.
+     */
+    private Player player;
+
+    /**
+     * La colonne vers laquelle le joueur se déplace au prochain appel.
+     */
+    private int column;
+
+    /**
+     * Crée la partie.
+     */
+    @Setup
+    public void setUp() {
+        // Environ une tuile sur dix est occupée par un ennemi
+        int size = Math.max(GameConfiguration.MIN_SIZE * 3, (int) Math.sqrt(enemies * 20.0)) | 1;
+        game = new GameFacade(GameConfiguration.largeArena(size, size, enemies), 42);
+        game.startGame();
+        player = game.getPlayer();
+        column = 2;
+    }
+
+    /**
+     * Arrête la partie.
+     */
+    @TearDown
+    public void tearDown() {
+        game.shutdown();
+    }
+
+    /**
+     * Déplace le joueur d'une tuile, alternativement vers la droite et vers la gauche
+     * (les tuiles autour de sa position de départ sont toujours libres).
+     *
+     * @return Si le joueur a été déplacé.
+     */
+    @Benchmark
+    public boolean tryMove() {
+        boolean moved = game.tryMove(player, 1, column);
+        column = 3 - column;
+        return moved;
+    }
+
+    /**
+     * Fait se déplacer tous les ennemis, comme lors de chaque phase de déplacement.
+     */
+    @Benchmark
+    public void moveEnemies() {
+        game.moveEnemies();
+    }
+
+}
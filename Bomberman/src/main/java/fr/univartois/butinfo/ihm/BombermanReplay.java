@@ -0,0 +1,45 @@
+package fr.univartois.butinfo.ihm;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import fr.univartois.butinfo.ihm.model.GameFacade;
+import fr.univartois.butinfo.ihm.model.GameReplay;
+
+/**
+ * Rejoue sans interface graphique une partie de Bomberman enregistrée, aussi vite que le
+ * permet le processeur, et affiche l'état de la partie à la fin de l'enregistrement.
+ *
+ * Utilisation : {@code BombermanReplay <fichier d'enregistrement>}
+ */
+public class BombermanReplay {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Utilisation : BombermanReplay <fichier d'enregistrement>");
+            System.exit(1);
+        }
+
+        Path path = Path.of(args[0]);
+        GameReplay replay = GameReplay.load(path);
+        System.out.printf("Partie %s (graine %x) : %d commandes sur %d pas, %d octets%n",
+                replay.getConfiguration(), replay.getSeed(), replay.getCommandCount(),
+                replay.getFinalTick(), Files.size(path));
+
+        long start = System.nanoTime();
+        GameFacade game = replay.play();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Partie rejouée en %.3f s (%.0f pas/s)%n",
+                seconds, game.getCurrentTick() / seconds);
+        System.out.printf("Joueur : ligne %d, colonne %d, %d points de vie, %d bombes%n",
+                game.getPlayer().getRow(), game.getPlayer().getColumn(),
+                game.getPlayer().getHealth(), game.getPlayer().getBombCount());
+        System.out.printf("Ennemis en vie : %d, partie terminée : %b%n",
+                game.getEnemies().stream().filter(e -> e.isAlive()).count(),
+                game.isGameEnded());
+        game.shutdown();
+    }
+
+}
@@ -0,0 +1,73 @@
+package fr.univartois.butinfo.ihm;
+
+import fr.univartois.butinfo.ihm.model.GameConfiguration;
+import fr.univartois.butinfo.ihm.model.GameFacade;
+import fr.univartois.butinfo.ihm.room.RoomManager;
+
+/**
+ * Héberge un grand nombre de salles de Bomberman, chacune sur son propre fil virtuel, et
+ * mesure la mémoire occupée par salle ainsi que le nombre de salles qu'un cœur du
+ * processeur peut faire avancer en temps réel.
+ * Les salles dont la partie se termine sont remplacées, pour que leur nombre reste
+ * constant.
+ *
+ * Utilisation : {@code BombermanRooms [nombre de salles] [durée en secondes]
+ * [hauteur largeur nombre d'ennemis]}.
+ * Si la taille de la carte n'est pas précisée, la configuration standard est utilisée.
+ */
+public class BombermanRooms {
+
+    private static final int DEFAULT_ROOMS = 1000;
+    private static final int DEFAULT_SECONDS = 10;
+
+    public static void main(String[] args) throws InterruptedException {
+        int nbRooms = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_ROOMS;
+        int seconds = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_SECONDS;
+        GameConfiguration configuration = (args.length > 4)
+                ? GameConfiguration.largeArena(Integer.parseInt(args[2]),
+                        Integer.parseInt(args[3]), Integer.parseInt(args[4]))
+                : GameConfiguration.standard();
+
+        try (RoomManager manager = new RoomManager()) {
+            long before = usedHeap();
+            for (int i = 0; i < nbRooms; i++) {
+                manager.create(configuration);
+            }
+            long measured = (usedHeap() - before) / nbRooms;
+            long estimated = manager.estimateHeapBytes().join() / manager.getRoomCount();
+
+            System.out.printf("Configuration : %s, %d salles%n", configuration, nbRooms);
+            System.out.printf("Mémoire par salle : %d octets mesurés, %d octets estimés%n",
+                    measured, estimated);
+
+            long startCpu = manager.getTotalCpuTime();
+            long start = System.nanoTime();
+            long end = start + (seconds * 1_000_000_000L);
+            int replaced = 0;
+            while (System.nanoTime() < end) {
+                Thread.sleep(1000 / GameFacade.TICKS_PER_SECOND);
+                for (int i = manager.getRoomCount(); i < nbRooms; i++) {
+                    manager.create(configuration);
+                    replaced++;
+                }
+            }
+            double wall = (System.nanoTime() - start) / 1e9;
+            double cpu = (manager.getTotalCpuTime() - startCpu) / 1e9;
+
+            System.out.printf("%.1f s de calcul en %.1f s (%d salles remplacées)%n",
+                    cpu, wall, replaced);
+            System.out.printf("Salles par cœur : %.0f%n", nbRooms / (cpu / wall));
+        }
+    }
+
+    // Donne la mémoire occupée après un passage du ramasse-miettes
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
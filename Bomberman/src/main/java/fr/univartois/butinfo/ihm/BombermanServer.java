@@ -0,0 +1,37 @@
+package fr.univartois.butinfo.ihm;
+
+import java.io.IOException;
+
+import fr.univartois.butinfo.ihm.model.GameConfiguration;
+import fr.univartois.butinfo.ihm.model.GameFacade;
+import fr.univartois.butinfo.ihm.net.GameServer;
+
+/**
+ * Héberge une partie de Bomberman à laquelle des clients distants peuvent se connecter.
+ * Le serveur fonctionne jusqu'à ce que le programme soit interrompu.
+ *
+ * Utilisation : {@code BombermanServer [port] [hauteur largeur nombre d'ennemis]}.
+ * Si la taille de la carte n'est pas précisée, la configuration standard est utilisée.
+ */
+public class BombermanServer {
+
+    private static final int DEFAULT_PORT = 4242;
+
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        GameConfiguration configuration = (args.length > 3)
+                ? GameConfiguration.largeArena(Integer.parseInt(args[1]),
+                        Integer.parseInt(args[2]), Integer.parseInt(args[3]))
+                : GameConfiguration.standard();
+
+        GameFacade game = new GameFacade(configuration);
+        game.startGame();
+
+        try (GameServer server = new GameServer(game, port)) {
+            System.out.printf("Partie %s (graine %x) hébergée sur le port %d%n",
+                    configuration, game.getSeed(), server.getPort());
+            server.run();
+        }
+    }
+
+}
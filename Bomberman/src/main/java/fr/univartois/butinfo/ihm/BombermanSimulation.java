@@ -0,0 +1,88 @@
+package fr.univartois.butinfo.ihm;
+
+import java.util.SplittableRandom;
+
+import fr.univartois.butinfo.ihm.model.GameConfiguration;
+import fr.univartois.butinfo.ihm.model.GameFacade;
+import fr.univartois.butinfo.ihm.model.Player;
+
+/**
+ * Lance des parties de Bomberman sans interface graphique, aussi vite que le permet
+ * le processeur, et affiche le nombre de parties simulées par seconde.
+ * Le joueur y est contrôlé par un automate qui se déplace et pose des bombes au hasard.
+ *
+ * Utilisation : {@code BombermanSimulation [nombre de parties] [durée maximale en secondes]
+ * [hauteur largeur nombre d'ennemis]}.
+ * Si la taille de la carte n'est pas précisée, la configuration standard est utilisée.
+ */
+public class BombermanSimulation {
+
+    private static final int DEFAULT_GAMES = 1000;
+    private static final int DEFAULT_MAX_SECONDS = 300;
+
+    public static void main(String[] args) {
+        int games = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+        int maxSeconds = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_MAX_SECONDS;
+        long maxTicks = (long) maxSeconds * GameFacade.TICKS_PER_SECOND;
+        GameConfiguration configuration = (args.length > 4)
+                ? GameConfiguration.largeArena(Integer.parseInt(args[2]),
+                        Integer.parseInt(args[3]), Integer.parseInt(args[4]))
+                : GameConfiguration.standard();
+
+        SplittableRandom random = new SplittableRandom();
+        int victories = 0;
+        int defeats = 0;
+        long totalTicks = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < games; i++) {
+            GameFacade game = new GameFacade(configuration, random.nextLong());
+            game.startGame();
+
+            while (!game.isGameEnded() && (game.getCurrentTick() < maxTicks)) {
+                playRandomly(game, random);
+                game.tick();
+            }
+
+            if (game.isGameEnded()) {
+                if (game.getPlayer().isAlive()) {
+                    victories++;
+                } else {
+                    defeats++;
+                }
+            }
+            totalTicks += game.getCurrentTick();
+            game.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Configuration : %s%n", configuration);
+        System.out.printf("%d parties simulées en %.3f s (%.1f parties/s, %.0f pas/s)%n",
+                games, seconds, games / seconds, totalTicks / seconds);
+        System.out.printf("Victoires : %d, défaites : %d, parties interrompues : %d%n",
+                victories, defeats, games - victories - defeats);
+    }
+
+    // Fait jouer le joueur au hasard : il agit environ deux fois par seconde de jeu, et
+    // s'éloigne des bombes qui le menacent
+    private static void playRandomly(GameFacade game, SplittableRandom random) {
+        Player player = game.getPlayer();
+        if (!game.isSafe(player.getRow(), player.getColumn())
+                && (random.nextInt(GameFacade.TICKS_PER_SECOND / 2) == 0)) {
+            game.moveToSafety(player);
+            return;
+        }
+
+        switch (random.nextInt(GameFacade.TICKS_PER_SECOND * 2)) {
+            case 0 -> game.movePlayerUp();
+            case 1 -> game.movePlayerDown();
+            case 2 -> game.movePlayerLeft();
+            case 3 -> game.movePlayerRight();
+            case 4 -> game.dropBomb();
+            default -> {
+                // Le joueur ne fait rien pendant ce pas.
+            }
+        }
+    }
+
+}
@@ -8,11 +8,9 @@ import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListView;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.stage.Stage;
 
-import java.net.URL;
 import java.util.NoSuchElementException;
 
 public class BombSelectionController {
@@ -61,15 +59,12 @@ public class BombSelectionController {
         bombDescriptionLabel.setText(bomb.getDescription());
         bombDelayLabel.setText("Délai: " + bomb.getDelay() + " secondes");
 
-        // Charger l'image de la bombe
+        // Charger l'image de la bombe, décodée à la taille de son affichage
         try {
             String imageName = bomb.getName() + ".png";
-            URL url = getClass().getResource("/fr/univartois/butinfo/ihm/images/" + imageName);
-            if (url != null) {
-                Image image = new Image(url.toExternalForm());
-                bombImageView.setImage(image);
-            }
-        } catch (Exception e) {
+            int size = (int) bombImageView.getFitWidth();
+            bombImageView.setImage(SpriteCache.getInstance().get(imageName, size));
+        } catch (NoSuchElementException e) {
             // Si l'image n'est pas trouvée, ne pas afficher d'image
             bombImageView.setImage(null);
         }
@@ -1,21 +1,28 @@
 package fr.univartois.butinfo.ihm.controller;
 
+import fr.univartois.butinfo.ihm.model.AutoSaver;
+import fr.univartois.butinfo.ihm.model.GameConfiguration;
 import fr.univartois.butinfo.ihm.model.GameFacade;
+import fr.univartois.butinfo.ihm.model.GameRecorder;
 import fr.univartois.butinfo.ihm.model.AbstractCharacter;
 import fr.univartois.butinfo.ihm.model.Tile;
 import fr.univartois.butinfo.ihm.model.TileContent;
-import javafx.beans.binding.Bindings;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.canvas.Canvas;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
+import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.RowConstraints;
 import javafx.scene.layout.StackPane;
-import java.net.URL;
-import java.util.NoSuchElementException;
+import javafx.scene.shape.Rectangle;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import fr.univartois.butinfo.ihm.model.AbstractBomb;
@@ -39,89 +46,345 @@ public class BombermanController implements IGameController{
     @FXML
     private GridPane gridPane;
 
+    @FXML
+    private StackPane boardPane;
+
+    // Le mode d'affichage, choisi avec la propriété système "bomberman.renderer" : une
+    // grille d'ImageView ("nodes", par défaut) ou un unique canevas ("canvas")
+    private static final boolean CANVAS_RENDERER =
+            "canvas".equals(System.getProperty("bomberman.renderer", "nodes"));
+
+    // Le canevas dans lequel la partie est dessinée, et son moteur de rendu (en mode "canvas")
+    private Canvas canvas;
+    private MapRenderer renderer;
+
+    // La carte miniature, qui donne une vue d'ensemble de la partie quel que soit le mode
+    @FXML
+    private ImageView minimapView;
+    private Minimap minimap;
+
     private Scene scene;
 
     private static final int TILE_SIZE = 90;
-    private static final int MAP_HEIGHT = 11;
-    private static final int MAP_WIDTH = 13;
 
-    private Map<AbstractBomb, ImageView> bombViews = new HashMap<>();
+    // La configuration des parties : la partie standard, ou une grande arène dont la taille
+    // est donnée par les propriétés système "bomberman.height" et "bomberman.width"
+    private final GameConfiguration configuration = readConfiguration();
+
+    // Les bombes affichées, indexées par la tuile où elles se trouvent
+    private Map<Integer, AbstractBomb> bombCells = new HashMap<>();
     private Stage stage;
     private List<AbstractBomb> playerBombs = new ArrayList<>();
 
     private GameFacade gameFacade;
 
-    private Map<AbstractCharacter, ImageView> characterViews = new HashMap<>();
+    private GameLoop gameLoop;
+
+    // L'enregistrement de la partie en cours, sauvegardé à la fin de la partie
+    private static final Path REPLAY_DIRECTORY = Path.of("replays");
+    private GameRecorder recorder;
+
+    // La sauvegarde automatique de la partie en cours, toutes les 30 secondes (de jeu)
+    private static final int AUTOSAVE_PERIOD = 30;
+    private final AutoSaver autoSaver = new AutoSaver(Path.of("autosave.bms"));
+
+    // Les personnages affichés, associés à la tuile où ils se trouvaient lors de leur
+    // dernier affichage
+    private Map<AbstractCharacter, Integer> characterCells = new HashMap<>();
+    private final List<AbstractCharacter> occupants = new ArrayList<>();
+
+    // Les cellules de la grille, indexées par ligne puis par colonne, qui affichent les
+    // tuiles visibles de la carte à partir de la position de la caméra (le coin supérieur
+    // gauche de la partie affichée)
+    private static final int VIEWPORT_MARGIN = 1;
+    private StackPane[][] tileCells = new StackPane[0][0];
+    private int cameraRow;
+    private int cameraCol;
 
     public void initialize() {
-        gameFacade = new GameFacade();
-        gameFacade.setController(this);
+        minimap = new Minimap(minimapView);
+        if (CANVAS_RENDERER) {
+            canvas = new Canvas();
+            boardPane.getChildren().setAll(canvas);
+            renderer = new MapRenderer(canvas, TILE_SIZE);
+        }
 
-        gridPane.setPrefSize(MAP_WIDTH * TILE_SIZE, MAP_HEIGHT * TILE_SIZE);
-        gridPane.setMaxSize(MAP_WIDTH * TILE_SIZE, MAP_HEIGHT * TILE_SIZE);
-        gridPane.setMinSize(MAP_WIDTH * TILE_SIZE, MAP_HEIGHT * TILE_SIZE);
+        // La grille ou le canevas suit la taille de la zone d'affichage, qui ne dépend pas
+        // de la carte
+        Rectangle clip = new Rectangle();
+        clip.widthProperty().bind(boardPane.widthProperty());
+        clip.heightProperty().bind(boardPane.heightProperty());
+        boardPane.setClip(clip);
+        boardPane.widthProperty().addListener(
+                (observable, oldValue, newValue) -> resizeViewport());
+        boardPane.heightProperty().addListener(
+                (observable, oldValue, newValue) -> resizeViewport());
+
+        gameFacade = new GameFacade(configuration);
+        gameFacade.setController(this);
+        recorder = new GameRecorder(gameFacade);
+        gameFacade.setRecorder(recorder);
 
-        fillGridPane();
+        showMap();
         gameFacade.startGame();
         storeBombs();
+
+        gameLoop = new GameLoop(gameFacade, renderer, minimap);
+        gameLoop.start();
+        scheduleAutosave(gameFacade);
     }
 
-    private void fillGridPane() {
-        for (int row = 0; row < getHAUTEUR(); row++) {
-            for (int col = 0; col < getLARGEUR(); col++) {
-                Tile tile = gameFacade.getGameMap().get(row, col);
+    /**
+     * Lit la configuration des parties depuis les propriétés système.
+     *
+     * @return La configuration des parties.
+     */
+    private static GameConfiguration readConfiguration() {
+        Integer height = Integer.getInteger("bomberman.height");
+        Integer width = Integer.getInteger("bomberman.width");
+        if ((height == null) || (width == null)) {
+            return GameConfiguration.standard();
+        }
+        int enemyCount = Integer.getInteger("bomberman.enemies",
+                GameConfiguration.standard().getEnemyCount());
+        return GameConfiguration.largeArena(height, width, enemyCount);
+    }
+
+    /**
+     * Affiche la carte de la partie en cours, dans le canevas ou dans la grille selon le
+     * mode d'affichage.
+     */
+    private void showMap() {
+        minimap.setMap(gameFacade.getGameMap());
+        if (renderer != null) {
+            renderer.setMap(gameFacade.getGameMap(), gameFacade.getOccupancy());
+            resizeViewport();
+            return;
+        }
+
+        tileCells = new StackPane[0][0];
+        cameraRow = 0;
+        cameraCol = 0;
+        resizeViewport();
+    }
+
+    /**
+     * Adapte le nombre de tuiles affichées à la taille de la zone d'affichage.
+     * Seules les tuiles visibles, ainsi qu'une marge autour d'elles, sont représentées par
+     * des nœuds (ou dessinées dans le canevas) : les cellules ne sont recréées que lorsque
+     * la fenêtre change de taille.
+     */
+    private void resizeViewport() {
+        double displayedTileSize = TILE_SIZE * getBoard().getScaleX();
+        int rows = Math.min(getHAUTEUR(),
+                (int) Math.ceil(boardPane.getHeight() / displayedTileSize) + (2 * VIEWPORT_MARGIN));
+        int cols = Math.min(getLARGEUR(),
+                (int) Math.ceil(boardPane.getWidth() / displayedTileSize) + (2 * VIEWPORT_MARGIN));
+        if (renderer != null) {
+            renderer.setViewport(rows, cols);
+            return;
+        }
+        if ((tileCells.length == rows) && (tileCells[0].length == cols)) {
+            return;
+        }
+
+        gridPane.getChildren().clear();
+        gridPane.getColumnConstraints().clear();
+        gridPane.getRowConstraints().clear();
+        gridPane.setPrefSize(cols * TILE_SIZE, rows * TILE_SIZE);
+        gridPane.setMaxSize(cols * TILE_SIZE, rows * TILE_SIZE);
+        gridPane.setMinSize(cols * TILE_SIZE, rows * TILE_SIZE);
+
+        for (int col = 0; col < cols; col++) {
+            ColumnConstraints column = new ColumnConstraints();
+            column.setPercentWidth(100.0 / cols);
+            gridPane.getColumnConstraints().add(column);
+        }
+        for (int row = 0; row < rows; row++) {
+            RowConstraints constraints = new RowConstraints();
+            constraints.setPercentHeight(100.0 / rows);
+            gridPane.getRowConstraints().add(constraints);
+        }
+
+        tileCells = new StackPane[rows][cols];
+        centerCamera();
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                Tile tile = gameFacade.getGameMap().get(cameraRow + row, cameraCol + col);
                 StackPane cell = createTileStackPane(tile);
+                tileCells[row][col] = cell;
+                updateEntityViews(cell, cameraRow + row, cameraCol + col);
                 gridPane.add(cell, col, row);
             }
         }
     }
 
-    private StackPane createTileStackPane(Tile tile) {
-        StackPane stackPane = new StackPane();
-        TileContent content = tile.getContent();
+    /**
+     * Centre la caméra sur le joueur, sans qu'elle ne sorte de la carte.
+     *
+     * @return Si la caméra a été déplacée.
+     */
+    private boolean centerCamera() {
+        Player player = gameFacade.getPlayer();
+        int row = (player == null) ? 0 : (player.getRow() - (tileCells.length / 2));
+        int col = (player == null) ? 0 : (player.getColumn() - (tileCells[0].length / 2));
+        row = Math.max(0, Math.min(row, getHAUTEUR() - tileCells.length));
+        col = Math.max(0, Math.min(col, getLARGEUR() - tileCells[0].length));
+        if ((row == cameraRow) && (col == cameraCol)) {
+            return false;
+        }
 
-        // Image de base
-        ImageView baseImageView = createImageView(getImageNameForContent(content));
-        stackPane.getChildren().add(baseImageView);
+        cameraRow = row;
+        cameraCol = col;
+        return true;
+    }
 
-        // Image supplémentaire pour les murs de briques
-        if (content == TileContent.BRICK_WALL) {
-            ImageView brickImageView = createImageView("bricks.png");
-            brickImageView.setId("brick-wall");
-            stackPane.getChildren().add(brickImageView);
+    /**
+     * Réutilise les cellules de la grille pour afficher les tuiles se trouvant sous la
+     * caméra, ainsi que leurs bombes et leurs personnages, après que celle-ci a été
+     * déplacée.
+     */
+    private void scrollViewport() {
+        for (int row = 0; row < tileCells.length; row++) {
+            for (int col = 0; col < tileCells[row].length; col++) {
+                updateTileStackPane(tileCells[row][col],
+                        gameFacade.getGameMap().get(cameraRow + row, cameraCol + col));
+                updateEntityViews(tileCells[row][col], cameraRow + row, cameraCol + col);
+            }
         }
+    }
 
-        // Écouter les changements de contenu de la tuile
-        tile.contentProperty().addListener((observable, oldValue, newValue) -> {
-            // Supprimer l'image des briques si elle existe
-            stackPane.getChildren().removeIf(node ->
-                    node instanceof ImageView && "brick-wall".equals(node.getId()));
-
-            // Ajouter l'image des briques si le nouveau contenu est BRICK_WALL
-            if (newValue == TileContent.BRICK_WALL) {
-                ImageView brickImageView = createImageView("bricks.png");
-                brickImageView.setId("brick-wall");
-                stackPane.getChildren().add(brickImageView);
-            }
-        });
+    /**
+     * Met à jour l'affichage de la bombe et des personnages d'une tuile, si elle se trouve
+     * sous la caméra.
+     *
+     * @param row La ligne de la tuile.
+     * @param col La colonne de la tuile.
+     */
+    private void refreshEntities(int row, int col) {
+        if (isInViewport(row, col)) {
+            updateEntityViews(tileCells[row - cameraRow][col - cameraCol], row, col);
+        }
+    }
 
-        // Écouter les explosions de la tuile
-        tile.explodedProperty().addListener((observable, oldValue, newValue) -> {
-            if (newValue) {
-                // Ajouter une image d'explosion
-                ImageView explosionImageView = createImageView("explosion.png");
-                explosionImageView.setId("explosion");
-                stackPane.getChildren().add(explosionImageView);
-            } else {
-                // Retirer l'image d'explosion
-                stackPane.getChildren().removeIf(node ->
-                        node instanceof ImageView && "explosion".equals(node.getId()));
+    /**
+     * Met à jour les images de la bombe et des personnages d'une cellule de la grille.
+     * Ces images font partie de la cellule, comme celles de la tuile : la bombe est
+     * retrouvée par la tuile où elle se trouve, et les personnages par la grille
+     * d'occupation de la partie, sans parcourir les autres.
+     * Lorsque plusieurs ennemis se trouvent sur la tuile, un seul d'entre eux est
+     * affiché, sous le joueur.
+     *
+     * @param stackPane La cellule à mettre à jour.
+     * @param row La ligne de la tuile représentée par la cellule.
+     * @param col La colonne de la tuile représentée par la cellule.
+     */
+    private void updateEntityViews(StackPane stackPane, int row, int col) {
+        List<Node> images = stackPane.getChildren();
+        AbstractBomb bomb = bombCells.get(cellOf(row, col));
+        AbstractCharacter enemy = null;
+        AbstractCharacter player = null;
+        gameFacade.getOccupancy().collectCharacters(row, col, occupants);
+        for (AbstractCharacter character : occupants) {
+            if (character instanceof Player) {
+                player = character;
+            } else if (enemy == null) {
+                enemy = character;
             }
-        });
+        }
+        occupants.clear();
+
+        setEntityImage((ImageView) images.get(3), (bomb == null) ? null : bomb.getName());
+        setEntityImage((ImageView) images.get(4), (enemy == null) ? null : enemy.getName());
+        setEntityImage((ImageView) images.get(5), (player == null) ? null : player.getName());
+    }
+
+    /**
+     * Affiche l'image d'une bombe ou d'un personnage dans une des images d'une cellule.
+     *
+     * @param view L'image de la cellule.
+     * @param name Le nom de la bombe ou du personnage, ou {@code null} pour ne rien
+     *        afficher.
+     */
+    private void setEntityImage(ImageView view, String name) {
+        view.setImage((name == null) ? null
+                : SpriteCache.getInstance().get(name + ".png", TILE_SIZE));
+    }
 
+    /**
+     * Donne l'indice d'une tuile de la carte.
+     *
+     * @param row La ligne de la tuile.
+     * @param col La colonne de la tuile.
+     *
+     * @return L'indice de la tuile.
+     */
+    private int cellOf(int row, int col) {
+        return (row * getLARGEUR()) + col;
+    }
+
+    /**
+     * Vérifie si une tuile de la carte est affichée par une cellule de la grille.
+     *
+     * @param row La ligne de la tuile.
+     * @param col La colonne de la tuile.
+     *
+     * @return Si la tuile se trouve sous la caméra.
+     */
+    private boolean isInViewport(int row, int col) {
+        return (row >= cameraRow) && (row < cameraRow + tileCells.length)
+                && (col >= cameraCol) && (col < cameraCol + tileCells[0].length);
+    }
+
+    private StackPane createTileStackPane(Tile tile) {
+        StackPane stackPane = new StackPane();
+
+        // Image de base, puis les images des murs de briques et des explosions, qui ne sont
+        // visibles que lorsque la tuile en contient
+        ImageView baseImageView = createImageView(getImageNameForContent(tile.getContent()));
+        ImageView brickImageView = createImageView("bricks.png");
+        brickImageView.setId("brick-wall");
+        ImageView explosionImageView = createImageView("explosion.png");
+        explosionImageView.setId("explosion");
+        stackPane.getChildren().addAll(baseImageView, brickImageView, explosionImageView);
+
+        // Images de la bombe, d'un ennemi et du joueur, vides tant que la tuile n'en a pas
+        for (int i = 0; i < 3; i++) {
+            ImageView entityImageView = new ImageView();
+            entityImageView.setPreserveRatio(true);
+            entityImageView.setFitWidth(TILE_SIZE);
+            entityImageView.setFitHeight(TILE_SIZE);
+            stackPane.getChildren().add(entityImageView);
+        }
+
+        updateTileStackPane(stackPane, tile);
         return stackPane;
     }
 
+    /**
+     * Met à jour les images d'une cellule de la grille pour qu'elles représentent une
+     * tuile.
+     * Les images de la cellule sont conservées : seules l'image de base et la visibilité
+     * des autres changent, de sorte qu'aucun nœud n'est créé.
+     *
+     * @param stackPane La cellule à mettre à jour.
+     * @param tile La tuile représentée par la cellule.
+     */
+    private void updateTileStackPane(StackPane stackPane, Tile tile) {
+        TileContent content = tile.getContent();
+        List<Node> images = stackPane.getChildren();
+
+        // Image de base
+        ((ImageView) images.get(0)).setImage(SpriteCache.getInstance().get(
+                getImageNameForContent(content), TILE_SIZE));
+
+        // Image supplémentaire pour les murs de briques
+        images.get(1).setVisible(content == TileContent.BRICK_WALL);
+
+        // Image d'explosion si la tuile est en train d'exploser
+        images.get(2).setVisible(tile.isExploded());
+    }
+
     private String getImageNameForContent(TileContent content) {
         return switch (content) {
             case LAWN -> "lawn.png";
@@ -132,77 +395,58 @@ public class BombermanController implements IGameController{
     }
 
     private ImageView createImageView(String imageName) {
-        ImageView imageView = new ImageView(loadImage(imageName));
+        ImageView imageView = new ImageView(SpriteCache.getInstance().get(imageName, TILE_SIZE));
         imageView.setPreserveRatio(true);
         imageView.setFitWidth(TILE_SIZE);
         imageView.setFitHeight(TILE_SIZE);
         return imageView;
     }
 
-    private Image loadImage(String imageName) {
-        try {
-            URL url = getClass().getResource("/fr/univartois/butinfo/ihm/images/" + imageName);
-            if (url == null) {
-                throw new NoSuchElementException("Image non trouvée: " + imageName);
-            }
-            return new Image(url.toExternalForm(), TILE_SIZE, TILE_SIZE, true, true);
-        } catch (IllegalArgumentException e) {
-            throw new NoSuchElementException("Impossible de charger l'image: " + imageName, e);
-        }
-    }
-
     @Override
     public void updateTileView(int row, int col, Tile tile) {
-        // Trouver et supprimer la tuile existante
-        gridPane.getChildren().removeIf(node -> {
-            Integer nodeRow = GridPane.getRowIndex(node);
-            Integer nodeCol = GridPane.getColumnIndex(node);
-
-            // Vérifier que les indices ne sont pas null avant de les comparer
-            return nodeRow != null && nodeCol != null &&
-                    nodeRow == row && nodeCol == col &&
-                    !characterViews.containsValue(node) &&
-                    !bombViews.containsValue(node);
-        });
-
-        // Créer et ajouter la nouvelle tuile
-        StackPane newTileStack = createTileStackPane(tile);
-        gridPane.add(newTileStack, col, row);
+        minimap.tileChanged(row, col);
+        if (renderer != null) {
+            renderer.tileChanged(row, col);
+            return;
+        }
 
-        // Réappliquer les contraintes de positionnement
-        GridPane.setRowIndex(newTileStack, Integer.valueOf(row));
-        GridPane.setColumnIndex(newTileStack, Integer.valueOf(col));
+        // La cellule reste en place, sous les personnages et les bombes
+        if (isInViewport(row, col)) {
+            updateTileStackPane(tileCells[row - cameraRow][col - cameraCol], tile);
+        }
     }
 
     @Override
     public void bindCharacterToView(AbstractCharacter character) {
-        String imageName = character.getName() + ".png"; // ex: "guy.png" pour le joueur
-        ImageView characterImageView = createImageView(imageName);
-
-        characterViews.put(character, characterImageView);
-        gridPane.add(characterImageView, character.getColumn(), character.getRow());
+        minimap.addCharacter(character);
+        if (renderer != null) {
+            renderer.addCharacter(character);
+            return;
+        }
 
-        // Écouter les changements de vie pour retirer l'affichage si mort
-        character.healthProperty().addListener((observable, oldValue, newValue) -> {
-            if (newValue.intValue() <= 0) {
-                gridPane.getChildren().remove(characterImageView);
-                characterViews.remove(character);
-            }
-        });
+        characterCells.put(character, cellOf(character.getRow(), character.getColumn()));
+        updateCharacterPosition(character);
+    }
 
-        // Écouteur spécial pour le joueur
+    @Override
+    public void updateCharacterHealth(AbstractCharacter character) {
         if (character instanceof Player) {
-            character.healthProperty().addListener((observable, oldValue, newValue) -> {
-                if (newValue.intValue() <= 0) {
-                    // Le joueur est mort - fin de partie
-                    gameFacade.gameOver();
-                    // message de Game Over
-                    showGameOverMessage();
-                }
-            });
+            healthLabelLeft.setText("❤️ " + character.getHealth());
         }
 
-        updateCharacterPosition(character);
+        // Retirer l'affichage du personnage s'il est mort
+        if (!character.isAlive()) {
+            minimap.removeCharacter(character);
+        }
+        if (!character.isAlive() && (renderer != null)) {
+            renderer.removeCharacter(character);
+
+        } else if (!character.isAlive()) {
+            Integer cell = characterCells.remove(character);
+            if (cell != null) {
+                refreshEntities(cell / getLARGEUR(), cell % getLARGEUR());
+            }
+        }
     }
 
     /**
@@ -212,26 +456,53 @@ public class BombermanController implements IGameController{
      * @param character Le personnage dont la position a changé.
      */
     public void updateCharacterPosition(AbstractCharacter character) {
-        ImageView characterImageView = characterViews.get(character);
-        if (characterImageView != null) {
-            GridPane.setConstraints(characterImageView, character.getColumn(), character.getRow());
+        minimap.characterMoved(character);
+        if (renderer != null) {
+            renderer.characterMoved(character);
+            return;
+        }
+
+        Integer previous = characterCells.get(character);
+        if (previous == null) {
+            return;
+        }
+        characterCells.put(character, cellOf(character.getRow(), character.getColumn()));
+
+        // La caméra suit le joueur
+        if ((character instanceof Player) && centerCamera()) {
+            scrollViewport();
+            return;
         }
+
+        // Seules les cellules que le personnage a quittées et rejointes sont mises à jour
+        refreshEntities(previous / getLARGEUR(), previous % getLARGEUR());
+        refreshEntities(character.getRow(), character.getColumn());
     }
 
     public GridPane getGridPane() {
         return gridPane;
     }
 
+    /**
+     * Donne le nœud dans lequel la partie est affichée : le canevas en mode "canvas", la
+     * grille sinon.
+     *
+     * @return Le nœud affichant la partie.
+     */
+    public Node getBoard() {
+        return (canvas != null) ? canvas : gridPane;
+    }
+
     public GameFacade getGameFacade() {
         return gameFacade;
     }
 
     public int getHAUTEUR() {
-        return MAP_HEIGHT;
+        return configuration.getHeight();
     }
 
     public int getLARGEUR() {
-        return MAP_WIDTH;
+        return configuration.getWidth();
     }
 
     public void setScene(Scene scene) {
@@ -253,10 +524,8 @@ public class BombermanController implements IGameController{
     }
 
     @Override
-    public void bindBombCountToView(Player player) {
-        bombCountLabelLeft.textProperty().bind(
-                Bindings.concat("💣 ", player.bombCountProperty())
-        );
+    public void updateBombCount(Player player) {
+        bombCountLabelLeft.setText("💣 " + player.getBombCount());
     }
 
     /**
@@ -264,28 +533,29 @@ public class BombermanController implements IGameController{
      *
      * @param bomb La bombe à afficher.
      */
+    @Override
     public void displayBomb(AbstractBomb bomb) {
-        String imageName = bomb.getName() + ".png"; // ex: "bomb.png"
-        ImageView bombImageView = createImageView(imageName);
-
-        bombViews.put(bomb, bombImageView);
-        gridPane.add(bombImageView, bomb.getColumn(), bomb.getRow());
+        minimap.addBomb(bomb);
+        if (renderer != null) {
+            renderer.addBomb(bomb);
+            return;
+        }
 
-        // Écouter l'explosion de la bombe pour retirer l'affichage
-        bomb.explodedProperty().addListener((observable, oldValue, newValue) -> {
-            if (newValue) {
-                gridPane.getChildren().remove(bombImageView);
-                bombViews.remove(bomb);
-            }
-        });
+        bombCells.put(cellOf(bomb.getRow(), bomb.getColumn()), bomb);
+        refreshEntities(bomb.getRow(), bomb.getColumn());
     }
 
     @Override
-    public void bindHealthToView(Player player) {
-        
-        healthLabelLeft.textProperty().bind(
-                Bindings.concat("❤️ ", player.healthProperty())
-        );
+    public void removeBomb(AbstractBomb bomb) {
+        minimap.removeBomb(bomb);
+        if (renderer != null) {
+            renderer.removeBomb(bomb);
+            return;
+        }
+
+        if (bombCells.remove(cellOf(bomb.getRow(), bomb.getColumn()), bomb)) {
+            refreshEntities(bomb.getRow(), bomb.getColumn());
+        }
     }
 
     /**
@@ -330,7 +600,9 @@ public class BombermanController implements IGameController{
         }
     }
 
+    @Override
     public void showGameOverMessage() {
+        saveReplay();
         javafx.application.Platform.runLater(() -> {
             javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
             alert.setTitle("Fin de partie");
@@ -340,7 +612,9 @@ public class BombermanController implements IGameController{
         });
     }
 
+    @Override
     public void showVictoryMessage() {
+        saveReplay();
         javafx.application.Platform.runLater(() -> {
             javafx.scene.control.Alert alert = new javafx.scene.control.Alert(javafx.scene.control.Alert.AlertType.INFORMATION);
             alert.setTitle("Victoire");
@@ -350,24 +624,63 @@ public class BombermanController implements IGameController{
         });
     }
 
+    /**
+     * Programme la prochaine sauvegarde automatique d'une partie, tant qu'elle n'est pas
+     * terminée.
+     *
+     * @param game La partie à sauvegarder.
+     */
+    private void scheduleAutosave(GameFacade game) {
+        game.getScheduler().schedule((long) AUTOSAVE_PERIOD * GameFacade.TICKS_PER_SECOND, () -> {
+            if (!game.isGameEnded()) {
+                autoSaver.save(game);
+                scheduleAutosave(game);
+            }
+        });
+    }
+
+    /**
+     * Sauvegarde l'enregistrement de la partie qui vient de se terminer, afin de pouvoir
+     * la rejouer avec {@link fr.univartois.butinfo.ihm.BombermanReplay}.
+     */
+    private void saveReplay() {
+        try {
+            Files.createDirectories(REPLAY_DIRECTORY);
+            recorder.save(REPLAY_DIRECTORY.resolve(
+                    "partie-" + Long.toHexString(gameFacade.getSeed()) + ".bmr"));
+        } catch (IOException e) {
+            System.err.println("Impossible d'enregistrer la partie : " + e.getMessage());
+        }
+    }
+
     @FXML
     public void restartGame() {
+        // Arrêter la partie en cours
+        gameLoop.stop();
+        gameFacade.shutdown();
+
         // Nettoyer les vues existantes
-        characterViews.clear();
-        bombViews.clear();
+        characterCells.clear();
+        bombCells.clear();
 
         // Vider la grille
         gridPane.getChildren().clear();
 
         // Recréer la façade de jeu
-        gameFacade = new GameFacade();
+        gameFacade = new GameFacade(configuration);
         gameFacade.setController(this);
+        recorder = new GameRecorder(gameFacade);
+        gameFacade.setRecorder(recorder);
 
         // Refaire l'initialisation
-        fillGridPane();
+        showMap();
         gameFacade.startGame();
         storeBombs();
 
+        gameLoop = new GameLoop(gameFacade, renderer, minimap);
+        gameLoop.start();
+        scheduleAutosave(gameFacade);
+
         if (scene != null) {
             scene.getRoot().requestFocus();
         }
@@ -0,0 +1,96 @@
+package fr.univartois.butinfo.ihm.controller;
+
+import java.util.Arrays;
+
+/**
+ * La classe DirtyCells mémorise les cases d'un affichage qui doivent être redessinées
+ * lors de la prochaine impulsion.
+ * Chaque case est identifiée par son indice : un masque de bits permet de savoir en temps
+ * constant si elle est marquée, et ses indices sont conservés dans l'ordre où elles l'ont
+ * été, afin de pouvoir les parcourir sans examiner les autres.
+ */
+final class DirtyCells {
+
+    /**
+     * Le masque de bits indiquant les cases marquées.
+     */
+    private long[] marks = new long[0];
+
+    /**
+     * Les indices des cases marquées, dans l'ordre où elles l'ont été.
+     */
+    private int[] cells = new int[64];
+
+    /**
+     * Le nombre de cases marquées.
+     */
+    private int size;
+
+    /**
+     * Prépare cet ensemble pour un nouvel affichage, en oubliant toutes les cases marquées.
+     *
+     * @param nbCells Le nombre de cases de l'affichage.
+     */
+    void reset(int nbCells) {
+        marks = new long[(nbCells + 63) >>> 6];
+        size = 0;
+    }
+
+    /**
+     * Marque une case qui doit être redessinée, si elle ne l'est pas déjà.
+     *
+     * @param cell L'indice de la case.
+     */
+    void mark(int cell) {
+        if (contains(cell)) {
+            return;
+        }
+        marks[cell >>> 6] |= 1L << cell;
+        if (size == cells.length) {
+            cells = Arrays.copyOf(cells, 2 * size);
+        }
+        cells[size++] = cell;
+    }
+
+    /**
+     * Vérifie si une case doit être redessinée.
+     *
+     * @param cell L'indice de la case.
+     *
+     * @return Si la case est marquée.
+     */
+    boolean contains(int cell) {
+        return (marks[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Donne le nombre de cases marquées.
+     *
+     * @return Le nombre de cases à redessiner.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Donne l'indice d'une des cases marquées.
+     *
+     * @param i La position de la case parmi les cases marquées.
+     *
+     * @return L'indice de la case.
+     */
+    int get(int i) {
+        return cells[i];
+    }
+
+    /**
+     * Oublie toutes les cases marquées, une fois qu'elles ont été redessinées.
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            marks[cells[i] >>> 6] &= ~(1L << cells[i]);
+        }
+        size = 0;
+    }
+
+}
@@ -0,0 +1,108 @@
+package fr.univartois.butinfo.ihm.controller;
+
+import fr.univartois.butinfo.ihm.model.GameFacade;
+import javafx.animation.AnimationTimer;
+
+/**
+ * La classe GameLoop fait avancer une partie en temps réel, au rythme des
+ * impulsions de JavaFX.
+ * Elle convertit le temps écoulé en pas de simulation, de sorte que le modèle
+ * n'a jamais besoin de connaître l'horloge réelle.
+ * Lorsque la partie est dessinée dans un canevas, celui-ci est mis à jour après les pas
+ * de chaque impulsion, de même que la carte miniature.
+ */
+public class GameLoop extends AnimationTimer {
+
+    /**
+     * La durée d'un pas de simulation (en nanosecondes).
+     */
+    private static final long TICK_DURATION = 1_000_000_000L / GameFacade.TICKS_PER_SECOND;
+
+    /**
+     * Le nombre maximal de pas de simulation effectués lors d'une même impulsion.
+     * Après un blocage (ramasse-miettes, déplacement de la fenêtre, pas trop long), la
+     * partie ralentit au lieu de rattraper tout son retard d'un coup, ce qui pourrait
+     * figer l'interface.
+     */
+    private static final int MAX_TICKS_PER_PULSE = 5;
+
+    /**
+     * La façade de la partie à faire avancer.
+     */
+    private final GameFacade gameFacade;
+
+    /**
+     * Le moteur de rendu à mettre à jour à chaque impulsion, ou {@code null} si la partie
+     * est affichée par des nœuds du graphe de scène.
+     */
+    private final MapRenderer renderer;
+
+    /**
+     * La carte miniature à mettre à jour à chaque impulsion, ou {@code null} s'il n'y en a
+     * pas.
+     */
+    private final Minimap minimap;
+
+    /**
+     * L'instant de la dernière impulsion reçue, ou -1 si aucune ne l'a encore été.
+     */
+    private long lastTime = -1;
+
+    /**
+     * Le temps écoulé qui n'a pas encore été converti en pas de simulation.
+     */
+    private long elapsed;
+
+    /**
+     * Crée une nouvelle boucle de jeu.
+     *
+     * @param gameFacade La façade de la partie à faire avancer.
+     */
+    public GameLoop(GameFacade gameFacade) {
+        this(gameFacade, null, null);
+    }
+
+    /**
+     * Crée une nouvelle boucle de jeu, qui met à jour l'affichage d'un canevas et d'une
+     * carte miniature.
+     *
+     * @param gameFacade La façade de la partie à faire avancer.
+     * @param renderer Le moteur de rendu à mettre à jour à chaque impulsion, ou
+     *        {@code null}.
+     * @param minimap La carte miniature à mettre à jour à chaque impulsion, ou
+     *        {@code null}.
+     */
+    public GameLoop(GameFacade gameFacade, MapRenderer renderer, Minimap minimap) {
+        this.gameFacade = gameFacade;
+        this.renderer = renderer;
+        this.minimap = minimap;
+    }
+
+    @Override
+    public void handle(long now) {
+        if (lastTime >= 0) {
+            elapsed += now - lastTime;
+        }
+        lastTime = now;
+
+        int ticks = 0;
+        while ((elapsed >= TICK_DURATION) && (ticks < MAX_TICKS_PER_PULSE)) {
+            gameFacade.tick();
+            elapsed -= TICK_DURATION;
+            ticks++;
+        }
+
+        // Le retard restant est abandonné
+        if (elapsed >= TICK_DURATION) {
+            elapsed %= TICK_DURATION;
+        }
+
+        if (renderer != null) {
+            renderer.render();
+        }
+        if (minimap != null) {
+            minimap.render();
+        }
+    }
+
+}
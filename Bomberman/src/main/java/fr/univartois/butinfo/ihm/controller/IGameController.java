@@ -1,5 +1,6 @@
 package fr.univartois.butinfo.ihm.controller;
 
+import fr.univartois.butinfo.ihm.model.AbstractBomb;
 import fr.univartois.butinfo.ihm.model.AbstractCharacter;
 import fr.univartois.butinfo.ihm.model.Player;
 import fr.univartois.butinfo.ihm.model.Tile;
@@ -25,8 +26,37 @@ public interface IGameController {
 
     void updateCharacterPosition(AbstractCharacter character);
 
-    void bindBombCountToView(Player player);
+    /**
+     * Met à jour l'affichage des points de vie d'un personnage.
+     * Un personnage qui n'a plus de points de vie doit disparaître de l'affichage.
+     *
+     * @param character Le personnage dont les points de vie ont changé.
+     */
+    void updateCharacterHealth(AbstractCharacter character);
+
+    /**
+     * Met à jour l'affichage du nombre de bombes du joueur.
+     *
+     * @param player Le joueur dont l'inventaire a changé.
+     */
+    void updateBombCount(Player player);
+
+    /**
+     * Affiche une bombe sur la carte à sa position.
+     *
+     * @param bomb La bombe à afficher.
+     */
+    void displayBomb(AbstractBomb bomb);
+
+    /**
+     * Retire une bombe de l'affichage, une fois qu'elle a explosé.
+     *
+     * @param bomb La bombe à retirer.
+     */
+    void removeBomb(AbstractBomb bomb);
+
+    void showGameOverMessage();
 
-    void bindHealthToView(Player player);
+    void showVictoryMessage();
 
 }
@@ -0,0 +1,422 @@
+package fr.univartois.butinfo.ihm.controller;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import fr.univartois.butinfo.ihm.model.AbstractBomb;
+import fr.univartois.butinfo.ihm.model.AbstractCharacter;
+import fr.univartois.butinfo.ihm.model.GameMap;
+import fr.univartois.butinfo.ihm.model.OccupancyGrid;
+import fr.univartois.butinfo.ihm.model.Player;
+import fr.univartois.butinfo.ihm.model.TileContent;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+
+/**
+ * La classe MapRenderer dessine la carte, les bombes et les personnages d'une partie dans
+ * un {@link Canvas}, depuis une {@link SpriteSheet}.
+ *
+ * Contrairement à une grille de {@link javafx.scene.image.ImageView}, le nombre de nœuds
+ * du graphe de scène ne dépend pas de la taille de la carte, et déplacer un personnage ne
+ * demande aucun calcul de mise en page.
+ * Le canevas a la taille de la zone d'affichage, et non celle de la carte : il ne montre
+ * que les tuiles se trouvant sous la caméra, qui suit le joueur.
+ * Les tuiles visibles qui ont changé depuis la dernière impulsion sont marquées, et
+ * {@link #render()} ne redessine que celles-ci, ainsi que les bombes et les personnages
+ * qui s'y trouvent.
+ */
+public class MapRenderer {
+
+    /**
+     * Le canevas dans lequel la partie est dessinée.
+     */
+    private final Canvas canvas;
+
+    /**
+     * Le contexte graphique du canevas.
+     */
+    private final GraphicsContext graphics;
+
+    /**
+     * La planche contenant les images du jeu.
+     */
+    private final SpriteSheet sprites;
+
+    /**
+     * La taille (en pixels) des tuiles dessinées.
+     */
+    private final int tileSize;
+
+    /**
+     * L'indice de l'image de la pelouse dans la planche.
+     */
+    private final int lawn;
+
+    /**
+     * L'indice de l'image des murs solides dans la planche.
+     */
+    private final int wall;
+
+    /**
+     * L'indice de l'image des murs de briques dans la planche.
+     */
+    private final int bricks;
+
+    /**
+     * L'indice de l'image des explosions dans la planche.
+     */
+    private final int explosion;
+
+    /**
+     * Les personnages affichés, associés à l'indice de la tuile où ils ont été dessinés.
+     */
+    private final Map<AbstractCharacter, Integer> characters = new HashMap<>();
+
+    /**
+     * Les bombes affichées, indexées par l'indice de la tuile où elles se trouvent.
+     */
+    private final Map<Integer, AbstractBomb> bombs = new HashMap<>();
+
+    /**
+     * La liste dans laquelle sont rangés les personnages d'une tuile à redessiner.
+     */
+    private final List<AbstractCharacter> occupants = new ArrayList<>();
+
+    /**
+     * Les tuiles visibles à redessiner, désignées par leur indice dans la zone affichée.
+     */
+    private final DirtyCells dirty = new DirtyCells();
+
+    /**
+     * La carte dessinée.
+     */
+    private GameMap map;
+
+    /**
+     * La grille indiquant les personnages présents sur chaque tuile de la carte.
+     */
+    private OccupancyGrid occupancy;
+
+    /**
+     * Le nombre de lignes de tuiles affichées.
+     */
+    private int rows;
+
+    /**
+     * Le nombre de colonnes de tuiles affichées.
+     */
+    private int columns;
+
+    /**
+     * La ligne de la première tuile affichée.
+     */
+    private int cameraRow;
+
+    /**
+     * La colonne de la première tuile affichée.
+     */
+    private int cameraColumn;
+
+    /**
+     * La ligne de la tuile sur laquelle la caméra est centrée.
+     */
+    private int focusRow;
+
+    /**
+     * La colonne de la tuile sur laquelle la caméra est centrée.
+     */
+    private int focusColumn;
+
+    /**
+     * Crée un nouveau MapRenderer.
+     *
+     * @param canvas Le canevas dans lequel la partie est dessinée.
+     * @param tileSize La taille (en pixels) des tuiles dessinées.
+     */
+    public MapRenderer(Canvas canvas, int tileSize) {
+        this.canvas = canvas;
+        this.graphics = canvas.getGraphicsContext2D();
+        this.tileSize = tileSize;
+        this.sprites = new SpriteSheet(tileSize);
+        this.lawn = sprites.indexOf("lawn.png");
+        this.wall = sprites.indexOf("wall.png");
+        this.bricks = sprites.indexOf("bricks.png");
+        this.explosion = sprites.indexOf("explosion.png");
+    }
+
+    /**
+     * Change la carte dessinée, par exemple lorsqu'une nouvelle partie commence.
+     * Les bombes et les personnages affichés sont oubliés, la caméra revient dans le coin
+     * supérieur gauche de la carte, et toute la zone affichée sera redessinée lors de la
+     * prochaine impulsion.
+     *
+     * @param map La nouvelle carte à dessiner.
+     * @param occupancy La grille indiquant les personnages présents sur la carte.
+     */
+    public void setMap(GameMap map, OccupancyGrid occupancy) {
+        this.map = map;
+        this.occupancy = occupancy;
+        characters.clear();
+        bombs.clear();
+        focusRow = 0;
+        focusColumn = 0;
+        rows = Math.min(rows, map.getHeight());
+        columns = Math.min(columns, map.getWidth());
+        resetViewport();
+    }
+
+    /**
+     * Change le nombre de tuiles affichées, par exemple lorsque la fenêtre change de
+     * taille.
+     * Le canevas est redimensionné en conséquence, sans jamais dépasser la taille de la
+     * carte, et toute la zone affichée sera redessinée lors de la prochaine impulsion.
+     *
+     * @param rows Le nombre de lignes de tuiles à afficher.
+     * @param columns Le nombre de colonnes de tuiles à afficher.
+     */
+    public void setViewport(int rows, int columns) {
+        int visibleRows = Math.min(rows, map.getHeight());
+        int visibleColumns = Math.min(columns, map.getWidth());
+        if ((visibleRows != this.rows) || (visibleColumns != this.columns)) {
+            this.rows = visibleRows;
+            this.columns = visibleColumns;
+            resetViewport();
+        }
+    }
+
+    /**
+     * Marque une tuile qui doit être redessinée, si elle est visible.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     */
+    public void tileChanged(int row, int column) {
+        mark(cellOf(row, column));
+    }
+
+    /**
+     * Ajoute un personnage à l'affichage.
+     * Lorsqu'il s'agit du joueur, la caméra est centrée sur lui.
+     *
+     * @param character Le personnage à afficher.
+     */
+    public void addCharacter(AbstractCharacter character) {
+        sprites.indexOf(character.getName() + ".png");
+        int cell = cellOf(character.getRow(), character.getColumn());
+        characters.put(character, cell);
+        mark(cell);
+        follow(character);
+    }
+
+    /**
+     * Met à jour l'affichage d'un personnage qui s'est déplacé.
+     * Lorsqu'il s'agit du joueur, la caméra le suit.
+     *
+     * @param character Le personnage déplacé.
+     */
+    public void characterMoved(AbstractCharacter character) {
+        Integer previous = characters.get(character);
+        if (previous != null) {
+            int cell = cellOf(character.getRow(), character.getColumn());
+            characters.put(character, cell);
+            mark(previous);
+            mark(cell);
+            follow(character);
+        }
+    }
+
+    /**
+     * Retire un personnage de l'affichage.
+     *
+     * @param character Le personnage à retirer.
+     */
+    public void removeCharacter(AbstractCharacter character) {
+        Integer cell = characters.remove(character);
+        if (cell != null) {
+            mark(cell);
+        }
+    }
+
+    /**
+     * Ajoute une bombe à l'affichage.
+     *
+     * @param bomb La bombe à afficher.
+     */
+    public void addBomb(AbstractBomb bomb) {
+        sprites.indexOf(bomb.getName() + ".png");
+        int cell = cellOf(bomb.getRow(), bomb.getColumn());
+        bombs.put(cell, bomb);
+        mark(cell);
+    }
+
+    /**
+     * Retire une bombe de l'affichage.
+     *
+     * @param bomb La bombe à retirer.
+     */
+    public void removeBomb(AbstractBomb bomb) {
+        int cell = cellOf(bomb.getRow(), bomb.getColumn());
+        if (bombs.remove(cell, bomb)) {
+            mark(cell);
+        }
+    }
+
+    /**
+     * Redessine les tuiles visibles marquées depuis le dernier appel, ainsi que la bombe
+     * puis les personnages qui s'y trouvent.
+     * Les personnages sont obtenus depuis la grille d'occupation, de sorte que le coût de
+     * cette méthode ne dépend que du nombre de tuiles marquées.
+     * Cette méthode est appelée à chaque impulsion de JavaFX.
+     */
+    public void render() {
+        if (dirty.size() == 0) {
+            return;
+        }
+
+        for (int i = 0; i < dirty.size(); i++) {
+            int row = cameraRow + (dirty.get(i) / columns);
+            int column = cameraColumn + (dirty.get(i) % columns);
+            double x = (double) (column - cameraColumn) * tileSize;
+            double y = (double) (row - cameraRow) * tileSize;
+            drawTile(row, column, x, y);
+
+            AbstractBomb bomb = bombs.get(cellOf(row, column));
+            if (bomb != null) {
+                drawSprite(bomb.getName(), x, y);
+            }
+
+            // Le joueur est dessiné par-dessus les ennemis
+            occupancy.collectCharacters(row, column, occupants);
+            for (AbstractCharacter character : occupants) {
+                if (!(character instanceof Player)) {
+                    drawSprite(character.getName(), x, y);
+                }
+            }
+            for (AbstractCharacter character : occupants) {
+                if (character instanceof Player) {
+                    drawSprite(character.getName(), x, y);
+                }
+            }
+            occupants.clear();
+        }
+
+        dirty.clear();
+    }
+
+    /**
+     * Adapte le canevas au nombre de tuiles affichées, replace la caméra et marque toute
+     * la zone affichée, pour qu'elle soit redessinée.
+     */
+    private void resetViewport() {
+        canvas.setWidth((double) columns * tileSize);
+        canvas.setHeight((double) rows * tileSize);
+        dirty.reset(rows * columns);
+        moveCamera();
+        markViewport();
+    }
+
+    /**
+     * Centre la caméra sur le joueur, si le personnage donné est le joueur.
+     * Si la caméra se déplace, toute la zone affichée sera redessinée.
+     *
+     * @param character Le personnage qui vient d'être ajouté ou déplacé.
+     */
+    private void follow(AbstractCharacter character) {
+        if (character instanceof Player) {
+            focusRow = character.getRow();
+            focusColumn = character.getColumn();
+            if (moveCamera()) {
+                markViewport();
+            }
+        }
+    }
+
+    /**
+     * Centre la caméra sur la tuile suivie, sans qu'elle ne sorte de la carte.
+     *
+     * @return Si la caméra a été déplacée.
+     */
+    private boolean moveCamera() {
+        int row = Math.max(0, Math.min(focusRow - (rows / 2), map.getHeight() - rows));
+        int column = Math.max(0, Math.min(focusColumn - (columns / 2), map.getWidth() - columns));
+        if ((row == cameraRow) && (column == cameraColumn)) {
+            return false;
+        }
+
+        cameraRow = row;
+        cameraColumn = column;
+        return true;
+    }
+
+    /**
+     * Marque toutes les tuiles visibles, pour qu'elles soient redessinées.
+     */
+    private void markViewport() {
+        for (int cell = 0; cell < rows * columns; cell++) {
+            dirty.mark(cell);
+        }
+    }
+
+    /**
+     * Marque une tuile qui doit être redessinée, si elle se trouve sous la caméra.
+     *
+     * @param cell L'indice de la tuile sur la carte.
+     */
+    private void mark(int cell) {
+        int row = (cell / map.getWidth()) - cameraRow;
+        int column = (cell % map.getWidth()) - cameraColumn;
+        if ((row >= 0) && (row < rows) && (column >= 0) && (column < columns)) {
+            dirty.mark((row * columns) + column);
+        }
+    }
+
+    /**
+     * Dessine le contenu d'une tuile, en effaçant ce qui s'y trouvait.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     * @param x L'abscisse (en pixels) de la tuile dans le canevas.
+     * @param y L'ordonnée (en pixels) de la tuile dans le canevas.
+     */
+    private void drawTile(int row, int column, double x, double y) {
+        graphics.clearRect(x, y, tileSize, tileSize);
+
+        TileContent content = map.getContent(row, column);
+        if (content == null) {
+            return;
+        }
+        sprites.draw(graphics, (content == TileContent.SOLID_WALL) ? wall : lawn, x, y);
+        if (content == TileContent.BRICK_WALL) {
+            sprites.draw(graphics, bricks, x, y);
+        }
+        if (map.isExploded(row, column)) {
+            sprites.draw(graphics, explosion, x, y);
+        }
+    }
+
+    /**
+     * Dessine l'image d'une bombe ou d'un personnage sur une tuile.
+     *
+     * @param name Le nom de la bombe ou du personnage.
+     * @param x L'abscisse (en pixels) de la tuile dans le canevas.
+     * @param y L'ordonnée (en pixels) de la tuile dans le canevas.
+     */
+    private void drawSprite(String name, double x, double y) {
+        sprites.draw(graphics, sprites.indexOf(name + ".png"), x, y);
+    }
+
+    /**
+     * Donne l'indice d'une tuile de la carte.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return L'indice de la tuile.
+     */
+    private int cellOf(int row, int column) {
+        return (row * map.getWidth()) + column;
+    }
+
+}
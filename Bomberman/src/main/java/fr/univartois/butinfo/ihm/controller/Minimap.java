@@ -0,0 +1,326 @@
+package fr.univartois.butinfo.ihm.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import fr.univartois.butinfo.ihm.model.AbstractBomb;
+import fr.univartois.butinfo.ihm.model.AbstractCharacter;
+import fr.univartois.butinfo.ihm.model.GameMap;
+import fr.univartois.butinfo.ihm.model.Player;
+import fr.univartois.butinfo.ihm.model.TileContent;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+/**
+ * La classe Minimap affiche une vue d'ensemble de la carte, dans laquelle chaque pixel
+ * représente un carré de tuiles.
+ * Les pixels sont écrits directement dans une {@link WritableImage}, depuis le contenu
+ * des tuiles de la {@link GameMap} et la position des bombes et des personnages, sans
+ * ajouter le moindre nœud au graphe de scène.
+ *
+ * Sur les petites cartes, chaque pixel représente une seule tuile.
+ * Sur les grandes, un pixel représente un carré de tuiles, dont il prend la couleur
+ * moyenne : l'image ne dépasse ainsi jamais {@link #MAX_SIZE} pixels de côté.
+ * Seuls les pixels dont une tuile a changé depuis la dernière impulsion sont réécrits.
+ */
+public final class Minimap {
+
+    /**
+     * Le nombre maximal de pixels de chaque côté de l'image.
+     */
+    private static final int MAX_SIZE = 512;
+
+    /**
+     * La couleur (au format ARGB) des tuiles sans contenu.
+     */
+    private static final int EMPTY_COLOR = 0xFF2C3E50;
+
+    /**
+     * La couleur (au format ARGB) de la pelouse.
+     */
+    private static final int LAWN_COLOR = 0xFF3E8E41;
+
+    /**
+     * La couleur (au format ARGB) des murs solides.
+     */
+    private static final int WALL_COLOR = 0xFF7F8C8D;
+
+    /**
+     * La couleur (au format ARGB) des murs de briques.
+     */
+    private static final int BRICK_COLOR = 0xFFA0522D;
+
+    /**
+     * La couleur (au format ARGB) des explosions.
+     */
+    private static final int EXPLOSION_COLOR = 0xFFF39C12;
+
+    /**
+     * La couleur (au format ARGB) des bombes.
+     */
+    private static final int BOMB_COLOR = 0xFF000000;
+
+    /**
+     * La couleur (au format ARGB) des ennemis.
+     */
+    private static final int ENEMY_COLOR = 0xFFE74C3C;
+
+    /**
+     * La couleur (au format ARGB) du joueur.
+     */
+    private static final int PLAYER_COLOR = 0xFFFFFFFF;
+
+    /**
+     * La vue dans laquelle la carte est affichée.
+     */
+    private final ImageView view;
+
+    /**
+     * Les personnages affichés, associés à l'indice du pixel où ils ont été dessinés.
+     */
+    private final Map<AbstractCharacter, Integer> characters = new LinkedHashMap<>();
+
+    /**
+     * Les bombes affichées, associées à l'indice du pixel où elles ont été dessinées.
+     */
+    private final Map<AbstractBomb, Integer> bombs = new LinkedHashMap<>();
+
+    /**
+     * Les pixels à réécrire.
+     */
+    private final DirtyCells dirty = new DirtyCells();
+
+    /**
+     * La carte affichée.
+     */
+    private GameMap map;
+
+    /**
+     * L'outil d'écriture des pixels de l'image affichée.
+     */
+    private PixelWriter writer;
+
+    /**
+     * Le nombre de tuiles représentées par chaque côté d'un pixel.
+     */
+    private int scale;
+
+    /**
+     * La largeur (en pixels) de l'image.
+     */
+    private int width;
+
+    /**
+     * Crée une nouvelle Minimap.
+     *
+     * @param view La vue dans laquelle la carte est affichée.
+     */
+    public Minimap(ImageView view) {
+        this.view = view;
+    }
+
+    /**
+     * Change la carte affichée, par exemple lorsqu'une nouvelle partie commence.
+     * Les bombes et les personnages affichés sont oubliés, et toute l'image sera écrite
+     * lors de la prochaine impulsion.
+     *
+     * @param map La nouvelle carte à afficher.
+     */
+    public void setMap(GameMap map) {
+        this.map = map;
+        this.scale = Math.ceilDiv(Math.max(map.getHeight(), map.getWidth()), MAX_SIZE);
+        this.width = Math.ceilDiv(map.getWidth(), scale);
+        int height = Math.ceilDiv(map.getHeight(), scale);
+        WritableImage image = new WritableImage(width, height);
+        writer = image.getPixelWriter();
+        view.setImage(image);
+
+        characters.clear();
+        bombs.clear();
+        dirty.reset(width * height);
+        for (int pixel = 0; pixel < width * height; pixel++) {
+            dirty.mark(pixel);
+        }
+    }
+
+    /**
+     * Marque une tuile dont le pixel doit être réécrit.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     */
+    public void tileChanged(int row, int column) {
+        dirty.mark(pixelOf(row, column));
+    }
+
+    /**
+     * Ajoute un personnage à l'affichage.
+     *
+     * @param character Le personnage à afficher.
+     */
+    public void addCharacter(AbstractCharacter character) {
+        int pixel = pixelOf(character.getRow(), character.getColumn());
+        characters.put(character, pixel);
+        dirty.mark(pixel);
+    }
+
+    /**
+     * Met à jour l'affichage d'un personnage qui s'est déplacé.
+     *
+     * @param character Le personnage déplacé.
+     */
+    public void characterMoved(AbstractCharacter character) {
+        Integer previous = characters.get(character);
+        if (previous != null) {
+            int pixel = pixelOf(character.getRow(), character.getColumn());
+            characters.put(character, pixel);
+            dirty.mark(previous);
+            dirty.mark(pixel);
+        }
+    }
+
+    /**
+     * Retire un personnage de l'affichage.
+     *
+     * @param character Le personnage à retirer.
+     */
+    public void removeCharacter(AbstractCharacter character) {
+        Integer pixel = characters.remove(character);
+        if (pixel != null) {
+            dirty.mark(pixel);
+        }
+    }
+
+    /**
+     * Ajoute une bombe à l'affichage.
+     *
+     * @param bomb La bombe à afficher.
+     */
+    public void addBomb(AbstractBomb bomb) {
+        int pixel = pixelOf(bomb.getRow(), bomb.getColumn());
+        bombs.put(bomb, pixel);
+        dirty.mark(pixel);
+    }
+
+    /**
+     * Retire une bombe de l'affichage.
+     *
+     * @param bomb La bombe à retirer.
+     */
+    public void removeBomb(AbstractBomb bomb) {
+        Integer pixel = bombs.remove(bomb);
+        if (pixel != null) {
+            dirty.mark(pixel);
+        }
+    }
+
+    /**
+     * Réécrit les pixels marqués depuis le dernier appel, puis ceux des bombes, des
+     * ennemis et enfin du joueur qui s'y trouvent.
+     * Cette méthode est appelée à chaque impulsion de JavaFX.
+     */
+    public void render() {
+        if (dirty.size() == 0) {
+            return;
+        }
+
+        for (int i = 0; i < dirty.size(); i++) {
+            int pixel = dirty.get(i);
+            writer.setArgb(pixel % width, pixel / width, averageColor(pixel));
+        }
+        for (Map.Entry<AbstractBomb, Integer> bomb : bombs.entrySet()) {
+            writeEntity(bomb.getValue(), BOMB_COLOR);
+        }
+        for (Map.Entry<AbstractCharacter, Integer> character : characters.entrySet()) {
+            if (!(character.getKey() instanceof Player)) {
+                writeEntity(character.getValue(), ENEMY_COLOR);
+            }
+        }
+        for (Map.Entry<AbstractCharacter, Integer> character : characters.entrySet()) {
+            if (character.getKey() instanceof Player) {
+                writeEntity(character.getValue(), PLAYER_COLOR);
+            }
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Calcule la couleur moyenne des tuiles représentées par un pixel.
+     *
+     * @param pixel L'indice du pixel.
+     *
+     * @return La couleur du pixel, au format ARGB.
+     */
+    private int averageColor(int pixel) {
+        int firstRow = (pixel / width) * scale;
+        int firstColumn = (pixel % width) * scale;
+        int lastRow = Math.min(firstRow + scale, map.getHeight());
+        int lastColumn = Math.min(firstColumn + scale, map.getWidth());
+
+        int red = 0;
+        int green = 0;
+        int blue = 0;
+        for (int row = firstRow; row < lastRow; row++) {
+            for (int column = firstColumn; column < lastColumn; column++) {
+                int color = tileColor(row, column);
+                red += (color >>> 16) & 0xFF;
+                green += (color >>> 8) & 0xFF;
+                blue += color & 0xFF;
+            }
+        }
+
+        int nbTiles = (lastRow - firstRow) * (lastColumn - firstColumn);
+        return 0xFF000000 | ((red / nbTiles) << 16) | ((green / nbTiles) << 8)
+                | (blue / nbTiles);
+    }
+
+    /**
+     * Donne la couleur d'une tuile de la carte.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return La couleur de la tuile, au format ARGB.
+     */
+    private int tileColor(int row, int column) {
+        if (map.isExploded(row, column)) {
+            return EXPLOSION_COLOR;
+        }
+
+        TileContent content = map.getContent(row, column);
+        if (content == null) {
+            return EMPTY_COLOR;
+        }
+        return switch (content) {
+            case SOLID_WALL -> WALL_COLOR;
+            case BRICK_WALL -> BRICK_COLOR;
+            default -> LAWN_COLOR;
+        };
+    }
+
+    /**
+     * Écrit le pixel d'une bombe ou d'un personnage, si ce pixel vient d'être réécrit.
+     *
+     * @param pixel L'indice du pixel.
+     * @param color La couleur de la bombe ou du personnage, au format ARGB.
+     */
+    private void writeEntity(int pixel, int color) {
+        if (dirty.contains(pixel)) {
+            writer.setArgb(pixel % width, pixel / width, color);
+        }
+    }
+
+    /**
+     * Donne l'indice du pixel représentant une tuile de la carte.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return L'indice du pixel.
+     */
+    private int pixelOf(int row, int column) {
+        return ((row / scale) * width) + (column / scale);
+    }
+
+}
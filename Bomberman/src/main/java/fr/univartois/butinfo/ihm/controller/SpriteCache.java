@@ -0,0 +1,159 @@
+package fr.univartois.butinfo.ihm.controller;
+
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javafx.scene.image.Image;
+
+/**
+ * La classe SpriteCache conserve les images du jeu une fois décodées, afin que chacune
+ * ne soit lue et décodée qu'une seule fois, quel que soit le nombre de vues qui
+ * l'affichent.
+ * Une même image pouvant être affichée par plusieurs {@link javafx.scene.image.ImageView},
+ * le cache est partagé par tous les contrôleurs.
+ *
+ * Les images sont identifiées par leur nom et par la taille à laquelle elles sont
+ * décodées : une image affichée à deux tailles différentes est décodée deux fois, mais
+ * n'occupe jamais plus de mémoire que nécessaire.
+ *
+ * Comme le reste de l'interface graphique, ce cache doit être utilisé depuis le fil
+ * d'exécution de JavaFX.
+ */
+public final class SpriteCache {
+
+    /**
+     * Le chemin des ressources contenant les images du jeu.
+     */
+    private static final String IMAGE_DIRECTORY = "/fr/univartois/butinfo/ihm/images/";
+
+    /**
+     * Le cache partagé par tous les contrôleurs.
+     */
+    private static final SpriteCache INSTANCE = new SpriteCache();
+
+    /**
+     * Les images déjà décodées, associées à leur nom suivi de leur taille.
+     */
+    private final Map<String, Image> images = new HashMap<>();
+
+    /**
+     * Le nombre de demandes d'image satisfaites par le cache.
+     */
+    private long hits;
+
+    /**
+     * Le nombre de demandes d'image qui ont nécessité de décoder l'image.
+     */
+    private long misses;
+
+    /**
+     * Empêche la création d'autres instances de cette classe.
+     */
+    private SpriteCache() {
+        // Le cache est partagé.
+    }
+
+    /**
+     * Donne le cache partagé par tous les contrôleurs.
+     *
+     * @return Le cache des images du jeu.
+     */
+    public static SpriteCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Donne une image du jeu, décodée à une taille donnée.
+     * L'image n'est décodée que lors de la première demande : les suivantes renvoient
+     * la même instance.
+     *
+     * @param name Le nom du fichier de l'image (par exemple, {@code "lawn.png"}).
+     * @param size La taille (en pixels) du carré dans lequel l'image est décodée, en
+     *        conservant ses proportions, ou 0 pour la décoder à sa taille d'origine.
+     *
+     * @return L'image demandée.
+     *
+     * @throws NoSuchElementException Si l'image n'existe pas ou ne peut pas être décodée.
+     */
+    public Image get(String name, int size) {
+        String key = name + '@' + size;
+        Image image = images.get(key);
+        if (image != null) {
+            hits++;
+            return image;
+        }
+
+        misses++;
+        image = load(name, size);
+        images.put(key, image);
+        return image;
+    }
+
+    /**
+     * Lit et décode une image du jeu.
+     *
+     * @param name Le nom du fichier de l'image.
+     * @param size La taille du carré dans lequel l'image est décodée, ou 0.
+     *
+     * @return L'image décodée.
+     *
+     * @throws NoSuchElementException Si l'image n'existe pas ou ne peut pas être décodée.
+     */
+    private Image load(String name, int size) {
+        URL url = getClass().getResource(IMAGE_DIRECTORY + name);
+        if (url == null) {
+            throw new NoSuchElementException("Image non trouvée: " + name);
+        }
+
+        try {
+            Image image = new Image(url.toExternalForm(), size, size, true, true);
+            if (image.isError()) {
+                throw new NoSuchElementException("Impossible de charger l'image: " + name);
+            }
+            return image;
+        } catch (IllegalArgumentException e) {
+            throw new NoSuchElementException("Impossible de charger l'image: " + name, e);
+        }
+    }
+
+    /**
+     * Donne le nombre de demandes d'image satisfaites sans décoder l'image.
+     *
+     * @return Le nombre de succès du cache.
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Donne le nombre de demandes d'image qui ont nécessité de la décoder.
+     *
+     * @return Le nombre d'échecs du cache.
+     */
+    public long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Donne le nombre d'images conservées dans ce cache.
+     *
+     * @return Le nombre d'images décodées.
+     */
+    public int size() {
+        return images.size();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "SpriteCache (" + images.size() + " images, " + hits + " succès, "
+                + misses + " échecs)";
+    }
+
+}
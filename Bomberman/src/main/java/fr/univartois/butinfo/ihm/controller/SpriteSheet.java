@@ -0,0 +1,123 @@
+package fr.univartois.butinfo.ihm.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+/**
+ * La classe SpriteSheet regroupe les images du jeu dans une seule image, découpée en cases
+ * carrées de même taille.
+ * Dessiner toutes les images depuis une même texture évite au moteur de rendu d'en
+ * changer à chaque image dessinée.
+ *
+ * Les images sont lues depuis le {@link SpriteCache}, et ajoutées à la planche lors de
+ * leur première utilisation : chacune est centrée dans sa case, dont le reste est
+ * transparent.
+ */
+public final class SpriteSheet {
+
+    /**
+     * Le nombre de cases sur chaque ligne de la planche.
+     */
+    private static final int COLUMNS = 8;
+
+    /**
+     * La taille (en pixels) des cases de la planche.
+     */
+    private final int spriteSize;
+
+    /**
+     * L'indice de la case de chacune des images de la planche, associé à son nom.
+     */
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    /**
+     * L'image contenant toutes les cases de la planche.
+     */
+    private WritableImage image;
+
+    /**
+     * Crée une nouvelle planche d'images.
+     *
+     * @param spriteSize La taille (en pixels) des cases de la planche.
+     * @param names Les noms des images à ajouter dès maintenant à la planche.
+     */
+    public SpriteSheet(int spriteSize, String... names) {
+        this.spriteSize = spriteSize;
+        this.image = new WritableImage(COLUMNS * spriteSize, spriteSize);
+        for (String name : names) {
+            indexOf(name);
+        }
+    }
+
+    /**
+     * Donne l'indice de la case d'une image, en l'ajoutant à la planche si nécessaire.
+     *
+     * @param name Le nom du fichier de l'image.
+     *
+     * @return L'indice de la case de l'image.
+     *
+     * @throws java.util.NoSuchElementException Si l'image n'existe pas.
+     */
+    public int indexOf(String name) {
+        Integer index = indices.get(name);
+        if (index != null) {
+            return index;
+        }
+
+        Image sprite = SpriteCache.getInstance().get(name, spriteSize);
+        int newIndex = indices.size();
+        if (((newIndex / COLUMNS) + 1) * spriteSize > image.getHeight()) {
+            grow();
+        }
+
+        // L'image est centrée dans sa case
+        int width = (int) sprite.getWidth();
+        int height = (int) sprite.getHeight();
+        int x = ((newIndex % COLUMNS) * spriteSize) + ((spriteSize - width) / 2);
+        int y = ((newIndex / COLUMNS) * spriteSize) + ((spriteSize - height) / 2);
+        image.getPixelWriter().setPixels(x, y, width, height, sprite.getPixelReader(), 0, 0);
+
+        indices.put(name, newIndex);
+        return newIndex;
+    }
+
+    /**
+     * Double le nombre de lignes de cases de la planche.
+     */
+    private void grow() {
+        WritableImage larger = new WritableImage(
+                (int) image.getWidth(), 2 * (int) image.getHeight());
+        PixelWriter writer = larger.getPixelWriter();
+        writer.setPixels(0, 0, (int) image.getWidth(), (int) image.getHeight(),
+                image.getPixelReader(), 0, 0);
+        image = larger;
+    }
+
+    /**
+     * Dessine une image de la planche.
+     *
+     * @param graphics Le contexte graphique dans lequel dessiner.
+     * @param index L'indice de la case de l'image.
+     * @param x L'abscisse du coin supérieur gauche de la case dessinée.
+     * @param y L'ordonnée du coin supérieur gauche de la case dessinée.
+     */
+    public void draw(GraphicsContext graphics, int index, double x, double y) {
+        graphics.drawImage(image, (index % COLUMNS) * spriteSize, (index / COLUMNS) * spriteSize,
+                spriteSize, spriteSize, x, y, spriteSize, spriteSize);
+    }
+
+    /**
+     * Donne la taille des cases de cette planche.
+     *
+     * @return La taille (en pixels) des cases.
+     */
+    public int getSpriteSize() {
+        return spriteSize;
+    }
+
+}
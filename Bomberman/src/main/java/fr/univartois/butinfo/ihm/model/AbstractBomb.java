@@ -16,8 +16,6 @@
 
 
 package fr.univartois.butinfo.ihm.model;
-import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.SimpleBooleanProperty;
 
 /**
  * La classe AbstractBomb est la classe parente de toutes les bombes que le joueur peut
@@ -45,9 +43,14 @@ public abstract class AbstractBomb {
     protected int column;
 
     /**
-     * La propriété qui indique si cette bombe a explosé ou non.
+     * Indique si cette bombe a explosé ou non.
      */
-    protected BooleanProperty exploded = new SimpleBooleanProperty(false);
+    protected boolean exploded;
+
+    /**
+     * L'explosion programmée de cette bombe, une fois qu'elle a été déposée.
+     */
+    ScheduledTask fuse;
     
     /**
      * Crée une nouvelle instance de AbstractBomb.
@@ -91,17 +94,28 @@ public abstract class AbstractBomb {
      */
     public abstract int getDelay();
 
+    /**
+     * Ajoute à une explosion toutes les tuiles touchées par cette bombe.
+     *
+     * @param blast L'explosion à compléter.
+     */
+    public abstract void fillBlast(Blast blast);
+
     /**
      * Fait exploser cette bombe, ce qui provoque une explosion sur les tuiles voisines.
+     * Toutes les tuiles touchées sont traitées en une seule fois par la façade, y compris
+     * celles des autres bombes qui explosent par réaction en chaîne.
      */
-    public abstract void explode();
+    public void explode() {
+        game.explode(this);
+    }
 
     /**
-     * Donne la propriété qui indique si cette bombe a explosé ou non.
+     * Vérifie si cette bombe a explosé ou non.
      *
-     * @return La propriété qui indique si cette bombe a explosé ou non.
+     * @return Si cette bombe a explosé.
      */
-    public BooleanProperty explodedProperty() {
+    public boolean isExploded() {
         return exploded;
     }
 
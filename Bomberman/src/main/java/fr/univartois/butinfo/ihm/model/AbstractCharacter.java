@@ -15,9 +15,6 @@
  */
 package fr.univartois.butinfo.ihm.model;
 
-import javafx.beans.property.IntegerProperty;
-import javafx.beans.property.SimpleIntegerProperty;
-
 /**
  * La classe AbstractCharacter est la classe parente des différents personnages pouvant se
  * déplacer dans le jeu du Bomberman.
@@ -41,7 +38,17 @@ public abstract class AbstractCharacter {
     /**
      * Les points de vie restants pour ce personnage.
      */
-    private IntegerProperty health;
+    private int health;
+
+    /**
+     * La grille d'occupation dans laquelle ce personnage est enregistré, si elle existe.
+     */
+    OccupancyGrid occupancy;
+
+    /**
+     * L'identifiant de ce personnage dans sa grille d'occupation.
+     */
+    int occupantId = -1;
 
     /**
      * Crée une nouvelle instace de AbstractCharacter.
@@ -49,7 +56,7 @@ public abstract class AbstractCharacter {
      * @param initialHealth Les points de vie initiaux du personnage.
      */
     protected AbstractCharacter(int initialHealth) {
-        this.health = new SimpleIntegerProperty(initialHealth);
+        this.health = initialHealth;
     }
 
     /**
@@ -84,8 +91,13 @@ public abstract class AbstractCharacter {
      * @param column La colonne où se trouve maintenant ce personnage.
      */
     public void setPosition(int row, int column) {
+        int oldRow = this.row;
+        int oldColumn = this.column;
         this.row = row;
         this.column = column;
+        if (occupancy != null) {
+            occupancy.moved(this, oldRow, oldColumn);
+        }
     }
 
     /**
@@ -94,30 +106,40 @@ public abstract class AbstractCharacter {
      * @return Les points de vie restants pour ce personnage.
      */
     public int getHealth() {
-        return health.get();
+        return health;
     }
 
     /**
-     * Donne la propriété des points de vie de ce personnage.
+     * Vérifie si ce personnage est encore en vie.
      *
-     * @return La propriété des points de vie.
+     * @return Si ce personnage a encore des points de vie.
      */
-    public IntegerProperty healthProperty() {
-        return health;
+    public boolean isAlive() {
+        return health > 0;
+    }
+
+    /**
+     * Modifie les points de vie de ce personnage, par exemple lors de la restauration d'une
+     * partie sauvegardée.
+     *
+     * @param health Les nouveaux points de vie du personnage.
+     */
+    void setHealth(int health) {
+        this.health = health;
     }
 
     /**
      * Augmente les points de vie de ce personnage.
      */
     public void incHealth() {
-        health.set(health.get() + 1);
+        health++;
     }
 
     /**
      * Diminue les points de vie de ce personnage.
      */
     public void decHealth() {
-        health.set(health.get() - 1);
+        health--;
     }
 
 }
@@ -0,0 +1,105 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * La classe AutoSaver sauvegarde régulièrement une partie du Bomberman dans un fichier,
+ * sans ralentir le fil d'exécution du jeu.
+ *
+ * Sur le fil du jeu, seule une copie de l'état de la partie est faite.
+ * Son encodage et son écriture dans le fichier ont lieu sur un fil d'exécution dédié.
+ * Si la sauvegarde précédente n'est pas terminée, la nouvelle est simplement ignorée :
+ * les sauvegardes ne s'accumulent donc jamais.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class AutoSaver implements AutoCloseable {
+
+    /**
+     * Le chemin du fichier de sauvegarde.
+     */
+    private final Path path;
+
+    /**
+     * Le fil d'exécution sur lequel les sauvegardes sont écrites.
+     */
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bomberman-autosave");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Indique si une sauvegarde est en cours d'écriture.
+     */
+    private final AtomicBoolean saving = new AtomicBoolean();
+
+    /**
+     * Crée une nouvelle instance de AutoSaver.
+     *
+     * @param path Le chemin du fichier de sauvegarde.
+     */
+    public AutoSaver(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Sauvegarde l'état courant d'une partie.
+     * Cette méthode doit être appelée sur le fil d'exécution du jeu : elle se contente de
+     * copier l'état de la partie, l'écriture ayant lieu en arrière-plan.
+     *
+     * @param game La partie à sauvegarder.
+     *
+     * @return Si la sauvegarde a été lancée, ou si elle a été ignorée parce que la
+     *         précédente n'est pas terminée.
+     */
+    public boolean save(GameFacade game) {
+        if (!saving.compareAndSet(false, true)) {
+            return false;
+        }
+
+        GameSnapshot snapshot = game.createSnapshot();
+        writer.execute(() -> {
+            try {
+                snapshot.write(path);
+            } catch (IOException e) {
+                System.err.println("Impossible de sauvegarder la partie : " + e.getMessage());
+            } finally {
+                saving.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Arrête cet enregistreur automatique.
+     * La sauvegarde en cours d'écriture, s'il y en a une, est tout de même terminée.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+    }
+
+}
@@ -0,0 +1,164 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.util.Arrays;
+
+/**
+ * La classe Blast représente l'ensemble des tuiles touchées par une explosion.
+ * Une bombe y ajoute toutes les tuiles de sa zone d'effet, puis la façade résout
+ * l'explosion en une seule fois : destruction des tuiles, dégâts infligés aux
+ * personnages, et vérification de la fin de partie.
+ *
+ * Une fois résolue, l'explosion indique combien de tuiles ont été détruites et combien
+ * de personnages ont été touchés.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class Blast {
+
+    /**
+     * Les lignes des tuiles touchées.
+     */
+    private int[] rows = new int[32];
+
+    /**
+     * Les colonnes des tuiles touchées.
+     */
+    private int[] columns = new int[32];
+
+    /**
+     * Le nombre de tuiles touchées.
+     */
+    private int size;
+
+    /**
+     * Le nombre de tuiles qui ont explosé lors de la résolution.
+     */
+    private int explodedTiles;
+
+    /**
+     * Le nombre de personnages touchés lors de la résolution.
+     */
+    private int hitCharacters;
+
+    /**
+     * Le nombre de personnages tués lors de la résolution.
+     */
+    private int killedCharacters;
+
+    /**
+     * Ajoute une tuile à cette explosion.
+     * La tuile peut se trouver en dehors de la carte : elle sera alors ignorée.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     */
+    public void add(int row, int column) {
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size * 2);
+            columns = Arrays.copyOf(columns, size * 2);
+        }
+        rows[size] = row;
+        columns[size] = column;
+        size++;
+    }
+
+    /**
+     * Donne le nombre de tuiles touchées par cette explosion.
+     *
+     * @return Le nombre de tuiles touchées.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Donne la ligne d'une tuile touchée par cette explosion.
+     *
+     * @param index L'indice de la tuile dans cette explosion.
+     *
+     * @return La ligne de la tuile.
+     */
+    public int getRow(int index) {
+        return rows[index];
+    }
+
+    /**
+     * Donne la colonne d'une tuile touchée par cette explosion.
+     *
+     * @param index L'indice de la tuile dans cette explosion.
+     *
+     * @return La colonne de la tuile.
+     */
+    public int getColumn(int index) {
+        return columns[index];
+    }
+
+    /**
+     * Vide cette explosion afin de pouvoir la réutiliser.
+     */
+    public void clear() {
+        size = 0;
+        explodedTiles = 0;
+        hitCharacters = 0;
+        killedCharacters = 0;
+    }
+
+    /**
+     * Donne le nombre de tuiles qui ont explosé lors de la résolution de cette explosion.
+     *
+     * @return Le nombre de tuiles qui ont explosé.
+     */
+    public int getExplodedTiles() {
+        return explodedTiles;
+    }
+
+    /**
+     * Donne le nombre de personnages touchés lors de la résolution de cette explosion.
+     *
+     * @return Le nombre de personnages touchés.
+     */
+    public int getHitCharacters() {
+        return hitCharacters;
+    }
+
+    /**
+     * Donne le nombre de personnages tués lors de la résolution de cette explosion.
+     *
+     * @return Le nombre de personnages tués.
+     */
+    public int getKilledCharacters() {
+        return killedCharacters;
+    }
+
+    /**
+     * Enregistre le résultat de la résolution de cette explosion.
+     *
+     * @param explodedTiles Le nombre de tuiles qui ont explosé.
+     * @param hitCharacters Le nombre de personnages touchés.
+     * @param killedCharacters Le nombre de personnages tués.
+     */
+    void setResult(int explodedTiles, int hitCharacters, int killedCharacters) {
+        this.explodedTiles = explodedTiles;
+        this.hitCharacters = hitCharacters;
+        this.killedCharacters = killedCharacters;
+    }
+
+}
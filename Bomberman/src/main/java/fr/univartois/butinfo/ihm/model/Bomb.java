@@ -68,14 +68,13 @@ public class Bomb extends AbstractBomb {
     /*
      * (non-Javadoc)
      * 
-     * @see fr.univartois.butinfo.ihm.bomberman.model.AbstractBomb#explode()
+     * @see fr.univartois.butinfo.ihm.bomberman.model.AbstractBomb#fillBlast(fr.univartois.butinfo.ihm.bomberman.model.Blast)
      */
     @Override
-    public void explode() {
-        exploded.set(true);
+    public void fillBlast(Blast blast) {
         for (int i = -1; i <= 1; i++) {
             for (int j = -1; j <= 1; j++) {
-                game.explode(row + i, column + j);
+                blast.add(row + i, column + j);
             }
         }
     }
@@ -0,0 +1,294 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * La classe DangerMap indique, pour chaque tuile de la carte, le pas de simulation auquel
+ * elle sera touchée par l'explosion d'une bombe déjà déposée.
+ *
+ * Les réactions en chaîne sont prises en compte : une bombe située dans la zone d'effet
+ * d'une autre bombe explosera au plus tard en même temps qu'elle.
+ * La carte est mise à jour de manière incrémentale : déposer ou faire exploser une bombe
+ * ne modifie que les tuiles de sa zone d'effet.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class DangerMap {
+
+    /**
+     * La valeur associée aux tuiles qu'aucune bombe ne menace.
+     */
+    public static final int SAFE = Integer.MAX_VALUE;
+
+    /**
+     * La carte sur laquelle les bombes sont déposées.
+     */
+    private final GameMap map;
+
+    /**
+     * Le nombre de colonnes de la carte.
+     */
+    private final int width;
+
+    /**
+     * Le pas auquel chaque tuile (rangées ligne par ligne) explosera, ou {@link #SAFE}.
+     */
+    private final int[] blastTicks;
+
+    /**
+     * Les bombes en attente, indexées par la tuile où elles se trouvent.
+     */
+    private final Map<Integer, PendingBomb> pending = new HashMap<>();
+
+    /**
+     * La plus grande distance (en lignes ou en colonnes) entre une bombe en attente et une
+     * tuile de sa zone d'effet.
+     */
+    private int maxRadius;
+
+    /**
+     * Les tuiles dont la valeur doit être recalculée après l'explosion de bombes.
+     */
+    private int[] outdated = new int[64];
+
+    /**
+     * Le nombre de tuiles dont la valeur doit être recalculée.
+     */
+    private int nbOutdated;
+
+    /**
+     * L'explosion utilisée pour récupérer la zone d'effet des bombes.
+     */
+    private final Blast footprint = new Blast();
+
+    /**
+     * Crée une nouvelle instance de DangerMap.
+     *
+     * @param map La carte sur laquelle les bombes sont déposées.
+     */
+    public DangerMap(GameMap map) {
+        this.map = map;
+        this.width = map.getWidth();
+        this.blastTicks = new int[map.getHeight() * width];
+        Arrays.fill(blastTicks, SAFE);
+    }
+
+    /**
+     * Estime la mémoire occupée par cette carte des dangers (en octets).
+     *
+     * @return Une estimation de la mémoire occupée.
+     */
+    long heapBytes() {
+        return 16 + (16 + (4L * blastTicks.length)) + (16 + (4L * outdated.length))
+                + (64L * pending.size());
+    }
+
+    /**
+     * Donne le pas auquel une tuile sera touchée par une explosion.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return Le pas de l'explosion, ou {@link #SAFE} si aucune bombe ne menace la tuile.
+     */
+    public int getBlastTick(int row, int column) {
+        if (!map.isOnMap(row, column)) {
+            return SAFE;
+        }
+        return blastTicks[(row * width) + column];
+    }
+
+    /**
+     * Vérifie si aucune bombe ne menace une tuile.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return Si la tuile est hors de portée de toutes les bombes en attente.
+     */
+    public boolean isSafe(int row, int column) {
+        return getBlastTick(row, column) == SAFE;
+    }
+
+    /**
+     * Enregistre une bombe qui vient d'être déposée.
+     *
+     * @param bomb La bombe déposée.
+     * @param blastTick Le pas auquel la bombe doit exploser.
+     */
+    public void bombPlaced(AbstractBomb bomb, long blastTick) {
+        int cell = (bomb.getRow() * width) + bomb.getColumn();
+        PendingBomb added = new PendingBomb(footprintOf(bomb),
+                (int) Math.min(blastTick, blastTicks[cell]));
+        pending.put(cell, added);
+
+        // La nouvelle bombe peut avancer l'explosion des bombes de sa zone d'effet, qui
+        // peuvent elles-mêmes avancer celle d'autres bombes.
+        ArrayDeque<PendingBomb> toUpdate = new ArrayDeque<>();
+        toUpdate.add(added);
+        while (!toUpdate.isEmpty()) {
+            PendingBomb current = toUpdate.poll();
+            for (int covered : current.cells) {
+                if (current.tick < blastTicks[covered]) {
+                    blastTicks[covered] = current.tick;
+                }
+                PendingBomb other = pending.get(covered);
+                if ((other != null) && (current.tick < other.tick)) {
+                    other.tick = current.tick;
+                    toUpdate.add(other);
+                }
+            }
+        }
+    }
+
+    /**
+     * Retire une bombe qui vient d'exploser.
+     * Les tuiles de sa zone d'effet ne sont recalculées qu'à l'appel de {@link #refresh()},
+     * afin de traiter en une seule fois toutes les bombes d'une réaction en chaîne.
+     *
+     * @param bomb La bombe qui a explosé.
+     */
+    public void bombRemoved(AbstractBomb bomb) {
+        PendingBomb removed = pending.remove((bomb.getRow() * width) + bomb.getColumn());
+        if (removed == null) {
+            return;
+        }
+        for (int covered : removed.cells) {
+            if (nbOutdated == outdated.length) {
+                outdated = Arrays.copyOf(outdated, nbOutdated * 2);
+            }
+            outdated[nbOutdated++] = covered;
+        }
+    }
+
+    /**
+     * Recalcule les tuiles qui étaient menacées par les bombes retirées depuis le dernier
+     * appel.
+     * Seules les bombes en attente assez proches de chaque tuile sont examinées.
+     */
+    public void refresh() {
+        if (pending.isEmpty()) {
+            maxRadius = 0;
+        }
+        for (int i = 0; i < nbOutdated; i++) {
+            int cell = outdated[i];
+            blastTicks[cell] = pending.isEmpty() ? SAFE : computeBlastTick(cell);
+        }
+        nbOutdated = 0;
+    }
+
+    /**
+     * Calcule le pas auquel une tuile sera touchée, à partir des bombes en attente.
+     *
+     * @param cell L'indice de la tuile.
+     *
+     * @return Le pas de la première explosion touchant la tuile, ou {@link #SAFE}.
+     */
+    private int computeBlastTick(int cell) {
+        int row = cell / width;
+        int column = cell % width;
+        int result = SAFE;
+        for (int i = row - maxRadius; i <= row + maxRadius; i++) {
+            for (int j = column - maxRadius; j <= column + maxRadius; j++) {
+                if (!map.isOnMap(i, j)) {
+                    continue;
+                }
+                PendingBomb bomb = pending.get((i * width) + j);
+                if ((bomb != null) && (bomb.tick < result) && bomb.covers(cell)) {
+                    result = bomb.tick;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Donne les tuiles de la carte touchées par une bombe.
+     *
+     * @param bomb La bombe à considérer.
+     *
+     * @return Les indices des tuiles de la zone d'effet de la bombe.
+     */
+    private int[] footprintOf(AbstractBomb bomb) {
+        footprint.clear();
+        bomb.fillBlast(footprint);
+        int[] cells = new int[footprint.size()];
+        int nbCells = 0;
+        for (int i = 0; i < footprint.size(); i++) {
+            int row = footprint.getRow(i);
+            int column = footprint.getColumn(i);
+            if (map.isOnMap(row, column)) {
+                cells[nbCells++] = (row * width) + column;
+                maxRadius = Math.max(maxRadius, Math.max(
+                        Math.abs(row - bomb.getRow()), Math.abs(column - bomb.getColumn())));
+            }
+        }
+        return Arrays.copyOf(cells, nbCells);
+    }
+
+    /**
+     * Une bombe en attente, avec sa zone d'effet et le pas auquel elle explosera.
+     */
+    private static final class PendingBomb {
+
+        /**
+         * Les indices des tuiles de la zone d'effet de la bombe.
+         */
+        private final int[] cells;
+
+        /**
+         * Le pas auquel la bombe explosera, en tenant compte des réactions en chaîne.
+         */
+        private int tick;
+
+        /**
+         * Crée une nouvelle instance de PendingBomb.
+         *
+         * @param cells Les indices des tuiles de la zone d'effet de la bombe.
+         * @param tick Le pas auquel la bombe explosera.
+         */
+        private PendingBomb(int[] cells, int tick) {
+            this.cells = cells;
+            this.tick = tick;
+        }
+
+        /**
+         * Vérifie si une tuile fait partie de la zone d'effet de cette bombe.
+         *
+         * @param other L'indice de la tuile.
+         *
+         * @return Si la tuile est touchée par cette bombe.
+         */
+        private boolean covers(int other) {
+            for (int covered : cells) {
+                if (covered == other) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,229 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * La classe DeltaDecoder reconstitue l'état d'une partie du Bomberman à partir des
+ * états encodés par un {@link DeltaEncoder}.
+ *
+ * Le décodeur conserve le dernier état reçu, auquel il applique les différences
+ * suivantes.
+ * Pour éviter de copier la carte à chaque pas, les états successifs partagent les mêmes
+ * tableaux : un état précédemment obtenu ne doit donc plus être utilisé une fois qu'un
+ * nouvel état a été décodé.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class DeltaDecoder {
+
+    /**
+     * Le nombre de contenus de tuiles possibles.
+     */
+    private static final int NB_CONTENTS = TileContent.values().length;
+
+    /**
+     * Le dernier état décodé, ou {@code null} si aucun ne l'a encore été.
+     */
+    private GameSnapshot state;
+
+    /**
+     * Donne le dernier état décodé.
+     *
+     * @return Le dernier état décodé, ou {@code null} si aucun ne l'a encore été.
+     */
+    public GameSnapshot getState() {
+        return state;
+    }
+
+    /**
+     * Décode un état encodé par un {@link DeltaEncoder}, qu'il soit complet ou qu'il
+     * s'agisse d'une différence avec un état précédent.
+     * Une différence plus ancienne que le dernier état décodé est ignorée.
+     *
+     * @param buffer Le tampon contenant l'état encodé.
+     *
+     * @return Le nouvel état de la partie.
+     *
+     * @throws IOException Si le tampon ne contient pas un état valide, ou s'il s'agit
+     *         d'une différence avec un état qui n'a pas été reçu.
+     */
+    public GameSnapshot decode(ByteBuffer buffer) throws IOException {
+        if ((buffer.remaining() >= Integer.BYTES)
+                && (buffer.getInt(buffer.position()) == GameSnapshot.MAGIC)) {
+            state = GameSnapshot.decode(buffer);
+            return state;
+        }
+
+        try {
+            if (buffer.getInt() != DeltaEncoder.MAGIC) {
+                throw new IOException("Ce message n'est pas un état de partie");
+            }
+            int version = buffer.getInt();
+            if (version != DeltaEncoder.VERSION) {
+                throw new IOException("Version de différence non prise en charge : " + version);
+            }
+
+            long baseTick = buffer.getLong();
+            long tick = buffer.getLong();
+            if ((state == null) || (baseTick > state.tick)) {
+                throw new IOException("État de référence inconnu : " + baseTick);
+            }
+            if (tick <= state.tick) {
+                return state;
+            }
+
+            GameSnapshot next = new GameSnapshot(state.configuration, state.seed, tick,
+                    buffer.get() != 0, state.contents, state.exploded);
+            next.enemyPhaseDelay = readVarInt(buffer);
+
+            next.player = new int[] { readVarInt(buffer), readVarInt(buffer),
+                    unZigZag(readVarInt(buffer)) };
+            next.inventory = new byte[readCount(buffer, 1)];
+            buffer.get(next.inventory);
+
+            next.nbBombs = readCount(buffer, GameSnapshot.BOMB_SIZE);
+            next.bombs = new byte[next.nbBombs * GameSnapshot.BOMB_SIZE];
+            buffer.get(next.bombs);
+
+            int nbExplosions = readCount(buffer, 2);
+            next.explosionDelays = new int[nbExplosions];
+            next.explosionCells = new int[nbExplosions][];
+            for (int i = 0; i < nbExplosions; i++) {
+                next.explosionDelays[i] = readVarInt(buffer);
+                int[] cells = new int[readCount(buffer, 1)];
+                for (int j = 0; j < cells.length; j++) {
+                    cells[j] = readVarInt(buffer);
+                }
+                next.explosionCells[i] = cells;
+            }
+
+            // Les changements sont vérifiés avant d'être appliqués, pour ne pas laisser
+            // un état à moitié modifié
+            int nbTiles = readCount(buffer, 2);
+            int tilesStart = buffer.position();
+            int index = 0;
+            for (int i = 0; i < nbTiles; i++) {
+                index += readVarInt(buffer);
+                int value = buffer.get() & 0x7F;
+                if ((index < 0) || (index >= state.contents.length) || (value > NB_CONTENTS)) {
+                    throw new IOException("Tuile invalide : " + index);
+                }
+            }
+            int nbEnemies = readCount(buffer, 4);
+            int enemiesStart = buffer.position();
+            int nbKnown = state.enemies.length / GameSnapshot.ENEMY_FIELDS;
+            index = 0;
+            for (int i = 0; i < nbEnemies; i++) {
+                index += readVarInt(buffer);
+                readVarInt(buffer);
+                readVarInt(buffer);
+                readVarInt(buffer);
+                if ((index < 0) || (index >= nbKnown)) {
+                    throw new IOException("Ennemi invalide : " + index);
+                }
+            }
+
+            buffer.position(tilesStart);
+            index = 0;
+            for (int i = 0; i < nbTiles; i++) {
+                index += readVarInt(buffer);
+                int value = buffer.get();
+                next.contents[index] = (byte) ((value & 0x7F) - 1);
+                if ((value & 0x80) != 0) {
+                    next.exploded[index >>> 6] |= 1L << index;
+                } else {
+                    next.exploded[index >>> 6] &= ~(1L << index);
+                }
+            }
+
+            buffer.position(enemiesStart);
+            next.enemies = state.enemies;
+            index = 0;
+            for (int i = 0; i < nbEnemies; i++) {
+                index += readVarInt(buffer);
+                int j = index * GameSnapshot.ENEMY_FIELDS;
+                next.enemies[j + 1] = readVarInt(buffer);
+                next.enemies[j + 2] = readVarInt(buffer);
+                next.enemies[j + 3] = unZigZag(readVarInt(buffer));
+            }
+
+            state = next;
+            return state;
+
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Différence d'états tronquée", e);
+        }
+    }
+
+    /**
+     * Lit un nombre d'enregistrements, en vérifiant que le tampon est assez grand pour
+     * les contenir.
+     *
+     * @param buffer Le tampon dans lequel lire.
+     * @param recordSize La taille minimale (en octets) d'un enregistrement.
+     *
+     * @return Le nombre d'enregistrements lu.
+     *
+     * @throws IOException Si le nombre lu est invalide.
+     */
+    private static int readCount(ByteBuffer buffer, int recordSize) throws IOException {
+        int count = readVarInt(buffer);
+        if ((count < 0) || (((long) count * recordSize) > buffer.remaining())) {
+            throw new IOException("Différence d'états tronquée");
+        }
+        return count;
+    }
+
+    /**
+     * Décode un entier signé codé par {@link DeltaEncoder}.
+     *
+     * @param value L'entier codé.
+     *
+     * @return L'entier décodé.
+     */
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Lit un entier positif codé sur un nombre variable d'octets.
+     *
+     * @param buffer Le tampon dans lequel lire l'entier.
+     *
+     * @return L'entier lu.
+     *
+     * @throws IOException Si l'entier est codé sur trop d'octets.
+     */
+    private static int readVarInt(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IOException("Entier mal codé dans une différence d'états");
+    }
+
+}
@@ -0,0 +1,360 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * La classe DeltaEncoder encode l'état d'une partie du Bomberman sous la forme de
+ * différences avec un état déjà connu du destinataire, afin de le transmettre après
+ * chaque pas de simulation sans renvoyer toute la carte.
+ *
+ * Les tuiles et les ennemis ayant changé sont suivis par des masques de bits, que cet
+ * encodeur vide après chaque pas pour en conserver l'historique sur les
+ * {@value #HISTORY} derniers pas.
+ * Une différence contient alors, pour chaque tuile et chaque ennemi ayant changé depuis
+ * l'état de référence, sa nouvelle valeur (et non la modification subie) : elle peut donc
+ * être appliquée à n'importe quel état plus récent que l'état de référence.
+ * Les entités peu nombreuses (le joueur, les bombes et les explosions) sont toujours
+ * transmises en entier.
+ *
+ * Lorsque l'état de référence est inconnu ou trop ancien, et périodiquement pour
+ * resynchroniser les destinataires, l'état complet est transmis dans le format des
+ * sauvegardes (voir {@link GameSnapshot}).
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ *
+ * @see DeltaDecoder
+ */
+public class DeltaEncoder {
+
+    /**
+     * Les octets identifiant une différence entre deux états ("BMDL").
+     */
+    static final int MAGIC = 0x424D444C;
+
+    /**
+     * La version du format des différences.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Le nombre de pas de simulation dont l'historique des changements est conservé.
+     */
+    static final int HISTORY = 64;
+
+    /**
+     * Le nombre de pas de simulation entre deux transmissions de l'état complet.
+     */
+    public static final int KEYFRAME_INTERVAL = 10 * GameFacade.TICKS_PER_SECOND;
+
+    /**
+     * La taille maximale (en octets) d'un entier codé sur un nombre variable d'octets.
+     */
+    private static final int MAX_VAR_INT = 5;
+
+    /**
+     * La partie dont l'état est encodé.
+     */
+    private final GameFacade game;
+
+    /**
+     * Le pas de simulation de chaque entrée de l'historique.
+     */
+    private final long[] historyTicks = new long[HISTORY];
+
+    /**
+     * Les indices des tuiles ayant changé, pour chaque entrée de l'historique.
+     */
+    private final int[][] tileHistory = new int[HISTORY][];
+
+    /**
+     * Les positions des ennemis ayant changé, pour chaque entrée de l'historique.
+     */
+    private final int[][] enemyHistory = new int[HISTORY][];
+
+    /**
+     * Le nombre d'entrées de l'historique.
+     */
+    private int size;
+
+    /**
+     * La position de la prochaine entrée de l'historique.
+     */
+    private int next;
+
+    /**
+     * Le pas de simulation de l'état le plus ancien à partir duquel une différence peut
+     * être calculée.
+     */
+    private long oldestBase;
+
+    /**
+     * Le pas de simulation auquel les changements ont été relevés pour la dernière fois.
+     */
+    private long lastCapture;
+
+    /**
+     * Le masque réutilisé pour réunir les tuiles ayant changé depuis un état de référence.
+     */
+    private final long[] tileUnion;
+
+    /**
+     * Le masque réutilisé pour réunir les ennemis ayant changé depuis un état de
+     * référence.
+     */
+    private final long[] enemyUnion;
+
+    /**
+     * Crée une nouvelle instance de DeltaEncoder.
+     * Les différences ne peuvent être calculées qu'à partir des états postérieurs à la
+     * création de l'encodeur.
+     *
+     * @param game La partie dont l'état est encodé.
+     */
+    public DeltaEncoder(GameFacade game) {
+        this.game = game;
+        this.tileUnion = new long[game.getGameMap().getDirtyTiles().length];
+        this.enemyUnion = new long[game.getDirtyEnemies().length];
+        this.lastCapture = game.getCurrentTick();
+        this.oldestBase = lastCapture;
+        drain(game.getGameMap().getDirtyTiles());
+        drain(game.getDirtyEnemies());
+    }
+
+    /**
+     * Relève les tuiles et les ennemis ayant changé depuis le dernier relevé.
+     * Cette méthode doit être appelée après chaque pas de simulation, avant d'encoder
+     * l'état de la partie à ce pas.
+     *
+     * @throws IllegalStateException Si la partie n'a pas avancé depuis le dernier relevé.
+     */
+    public void capture() {
+        long tick = game.getCurrentTick();
+        if (tick <= lastCapture) {
+            throw new IllegalStateException("La partie n'a pas avancé depuis le dernier relevé");
+        }
+
+        if (size == HISTORY) {
+            // L'entrée la plus ancienne est remplacée
+            oldestBase = historyTicks[next];
+        } else {
+            size++;
+        }
+        historyTicks[next] = tick;
+        tileHistory[next] = drain(game.getGameMap().getDirtyTiles());
+        enemyHistory[next] = drain(game.getDirtyEnemies());
+        next = (next + 1) % HISTORY;
+        lastCapture = tick;
+    }
+
+    /**
+     * Encode l'état courant de la partie par rapport à un état de référence.
+     *
+     * @param baseTick Le pas de simulation de l'état de référence, connu du destinataire,
+     *        ou -1 si le destinataire ne connaît encore aucun état.
+     *
+     * @return Le tampon contenant l'état encodé, prêt à être lu.
+     */
+    public ByteBuffer encode(long baseTick) {
+        if ((baseTick < oldestBase) || (baseTick > lastCapture)
+                || ((lastCapture % KEYFRAME_INTERVAL) == 0)) {
+            return encodeKeyframe();
+        }
+        return encodeDelta(baseTick);
+    }
+
+    /**
+     * Encode l'état complet de la partie.
+     *
+     * @return Le tampon contenant l'état encodé, prêt à être lu.
+     */
+    public ByteBuffer encodeKeyframe() {
+        return game.createSnapshot().encode();
+    }
+
+    /**
+     * Encode les changements survenus dans la partie depuis un état de référence.
+     *
+     * @param baseTick Le pas de simulation de l'état de référence.
+     *
+     * @return Le tampon contenant la différence, prête à être lue.
+     */
+    private ByteBuffer encodeDelta(long baseTick) {
+        int nbTiles = 0;
+        int nbEnemies = 0;
+        for (int i = 0; i < size; i++) {
+            if (historyTicks[i] > baseTick) {
+                nbTiles += union(tileHistory[i], tileUnion);
+                nbEnemies += union(enemyHistory[i], enemyUnion);
+            }
+        }
+
+        GameSnapshot entities = new GameSnapshot(game.getConfiguration(), game.getSeed(),
+                lastCapture, game.isGameEnded(), null, null);
+        game.copyEntities(entities);
+        int bound = (2 * Integer.BYTES) + (2 * Long.BYTES) + 1 + (4 * MAX_VAR_INT)
+                + (3 * MAX_VAR_INT) + entities.inventory.length
+                + (2 * MAX_VAR_INT) + (entities.nbBombs * GameSnapshot.BOMB_SIZE)
+                + (MAX_VAR_INT * (1 + nbTiles)) + nbTiles
+                + (4 * MAX_VAR_INT * nbEnemies);
+        for (int[] cells : entities.explosionCells) {
+            bound += MAX_VAR_INT * (2 + cells.length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(bound);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(baseTick);
+        buffer.putLong(lastCapture);
+        buffer.put((byte) (entities.gameEnded ? 1 : 0));
+        writeVarInt(buffer, entities.enemyPhaseDelay);
+
+        writeVarInt(buffer, entities.player[0]);
+        writeVarInt(buffer, entities.player[1]);
+        writeVarInt(buffer, zigZag(entities.player[2]));
+        writeVarInt(buffer, entities.inventory.length);
+        buffer.put(entities.inventory);
+
+        writeVarInt(buffer, entities.nbBombs);
+        buffer.put(entities.bombs);
+
+        writeVarInt(buffer, entities.explosionCells.length);
+        for (int i = 0; i < entities.explosionCells.length; i++) {
+            writeVarInt(buffer, entities.explosionDelays[i]);
+            writeVarInt(buffer, entities.explosionCells[i].length);
+            for (int cell : entities.explosionCells[i]) {
+                writeVarInt(buffer, cell);
+            }
+        }
+
+        // Chaque tuile est désignée par l'écart avec la précédente, suivi de son contenu
+        GameMap map = game.getGameMap();
+        int width = map.getWidth();
+        writeVarInt(buffer, nbTiles);
+        int previous = 0;
+        for (int w = 0; w < tileUnion.length; w++) {
+            for (long word = tileUnion[w]; word != 0; word &= word - 1) {
+                int index = (w << 6) + Long.numberOfTrailingZeros(word);
+                int row = index / width;
+                int column = index % width;
+                TileContent content = map.getContent(row, column);
+                int value = (content == null) ? 0 : (content.ordinal() + 1);
+                if (map.isExploded(row, column)) {
+                    value |= 0x80;
+                }
+                writeVarInt(buffer, index - previous);
+                buffer.put((byte) value);
+                previous = index;
+            }
+            tileUnion[w] = 0;
+        }
+
+        List<Enemy> enemies = game.getEnemies();
+        writeVarInt(buffer, nbEnemies);
+        previous = 0;
+        for (int w = 0; w < enemyUnion.length; w++) {
+            for (long word = enemyUnion[w]; word != 0; word &= word - 1) {
+                int index = (w << 6) + Long.numberOfTrailingZeros(word);
+                Enemy enemy = enemies.get(index);
+                writeVarInt(buffer, index - previous);
+                writeVarInt(buffer, enemy.getRow());
+                writeVarInt(buffer, enemy.getColumn());
+                writeVarInt(buffer, zigZag(enemy.getHealth()));
+                previous = index;
+            }
+            enemyUnion[w] = 0;
+        }
+
+        return buffer.flip();
+    }
+
+    /**
+     * Ajoute des indices à un masque de bits.
+     *
+     * @param indices Les indices à ajouter.
+     * @param union Le masque auquel les ajouter.
+     *
+     * @return Le nombre d'indices qui n'étaient pas encore dans le masque.
+     */
+    private static int union(int[] indices, long[] union) {
+        int added = 0;
+        for (int index : indices) {
+            long bit = 1L << index;
+            if ((union[index >>> 6] & bit) == 0) {
+                union[index >>> 6] |= bit;
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Vide un masque de bits.
+     *
+     * @param bits Le masque à vider.
+     *
+     * @return Les indices qui étaient dans le masque, dans l'ordre croissant.
+     */
+    private static int[] drain(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+
+        int[] indices = new int[count];
+        int i = 0;
+        for (int w = 0; (w < bits.length) && (i < count); w++) {
+            for (long word = bits[w]; word != 0; word &= word - 1) {
+                indices[i++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            bits[w] = 0;
+        }
+        return indices;
+    }
+
+    /**
+     * Code un entier signé sous la forme d'un entier positif, les petites valeurs
+     * (positives ou négatives) restant petites.
+     *
+     * @param value L'entier à coder.
+     *
+     * @return L'entier codé.
+     */
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Écrit un entier positif sur autant d'octets que nécessaire (7 bits par octet, le
+     * bit de poids fort indiquant si d'autres octets suivent).
+     *
+     * @param buffer Le tampon dans lequel écrire.
+     * @param value L'entier à écrire.
+     */
+    private static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+}
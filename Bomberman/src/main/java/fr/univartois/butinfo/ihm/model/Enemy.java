@@ -16,12 +16,7 @@
 
 package fr.univartois.butinfo.ihm.model;
 
-import javafx.animation.Animation;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.util.Duration;
-
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * La classe Enemy représente un adversaire du joueur dans le jeu du Bomberman.
@@ -37,7 +32,20 @@ public class Enemy extends AbstractCharacter {
      */
     private final String name;
 
-    private Timeline timeline;
+    /**
+     * Le générateur de nombres aléatoires propre à cet ennemi.
+     * Chaque ennemi ayant le sien, les ennemis peuvent choisir leurs déplacements en
+     * parallèle.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * La position de cet ennemi dans la liste des ennemis de sa partie, ou -1 s'il n'en
+     * fait pas partie.
+     * Les ennemis n'étant jamais retirés de cette liste, même après leur mort, cette
+     * position identifie l'ennemi pendant toute la partie.
+     */
+    int index = -1;
 
     /**
      * Construit un nouvel Enemy.
@@ -45,8 +53,20 @@ public class Enemy extends AbstractCharacter {
      * @param name Le nom du personnage.
      */
     public Enemy(String name) {
+        this(name, new SplittableRandom());
+    }
+
+    /**
+     * Construit un nouvel Enemy.
+     *
+     * @param name Le nom du personnage.
+     * @param random Le générateur de nombres aléatoires propre au personnage, qui ne doit
+     *        pas être partagé avec un autre personnage.
+     */
+    public Enemy(String name, SplittableRandom random) {
         super(1);
         this.name = name;
+        this.random = random;
     }
 
     /*
@@ -59,24 +79,60 @@ public class Enemy extends AbstractCharacter {
         return name;
     }
 
-    public void moveRandomly(GameFacade gameFacade) {
-        Random random = new Random();
-        int direction = random.nextInt(4);
+    /**
+     * Choisit la tuile sur laquelle cet ennemi veut se rendre.
+     * L'ennemi se rapproche du joueur en évitant les tuiles menacées par une bombe.
+     * S'il est lui-même menacé, il cherche d'abord à se mettre à l'abri.
+     * Si aucun chemin ne permet d'atteindre le joueur, il choisit au hasard l'une des
+     * tuiles voisines libres et hors de portée des bombes.
+     *
+     * Cette méthode ne modifie pas l'état de la partie, et peut donc être appelée en
+     * parallèle pour plusieurs ennemis.
+     *
+     * @param gameFacade La façade gérant la partie en cours.
+     *
+     * @return L'indice de la tuile choisie, ou {@link GameFacade#NO_MOVE} si l'ennemi ne
+     *         se déplace pas.
+     */
+    int decideMove(GameFacade gameFacade) {
+        if (!isAlive()) {
+            return GameFacade.NO_MOVE;
+        }
 
-        switch (direction) {
-            case 0 -> gameFacade.moveUp(this);
-            case 1 -> gameFacade.moveDown(this);
-            case 2 -> gameFacade.moveLeft(this);
-            case 3 -> gameFacade.moveRight(this);
+        int row = getRow();
+        int column = getColumn();
+        if (!gameFacade.isSafe(row, column)) {
+            int cell = gameFacade.findSafeCell(this);
+            if (cell != GameFacade.NO_MOVE) {
+                return cell;
+            }
+        }
+
+        int cell = gameFacade.findCellTowardsPlayer(this);
+        if (cell != GameFacade.NO_MOVE) {
+            return cell;
         }
-    }
 
-    public void animate(GameFacade gameFacade) {
-        this.timeline = new Timeline(
-                new KeyFrame(Duration.seconds(1), e -> moveRandomly(gameFacade))
-        );
-        this.timeline.setCycleCount(Animation.INDEFINITE);
-        this.timeline.play();
+        // On ne tire au sort que parmi les directions praticables et sans danger
+        int width = gameFacade.getGameMap().getWidth();
+        int[] cells = new int[4];
+        int nbCells = 0;
+        if (gameFacade.canMoveSafelyTo(this, row - 1, column)) {
+            cells[nbCells++] = ((row - 1) * width) + column;
+        }
+        if (gameFacade.canMoveSafelyTo(this, row + 1, column)) {
+            cells[nbCells++] = ((row + 1) * width) + column;
+        }
+        if (gameFacade.canMoveSafelyTo(this, row, column - 1)) {
+            cells[nbCells++] = (row * width) + column - 1;
+        }
+        if (gameFacade.canMoveSafelyTo(this, row, column + 1)) {
+            cells[nbCells++] = (row * width) + column + 1;
+        }
+        if (nbCells == 0) {
+            return GameFacade.NO_MOVE;
+        }
+        return cells[random.nextInt(nbCells)];
     }
 
     /**
@@ -86,10 +142,6 @@ public class Enemy extends AbstractCharacter {
     public void decHealth() {
         super.decHealth();
         if (getHealth() <= 0) {
-            // L'ennemi est mort - arrêter sa timeline
-            if (timeline != null) {
-                timeline.stop();
-            }
             System.out.println("L'ennemi " + getName() + " est mort !");
         }
     }
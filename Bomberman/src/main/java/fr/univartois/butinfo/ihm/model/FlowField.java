@@ -0,0 +1,193 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.util.Arrays;
+
+/**
+ * La classe FlowField donne, pour chaque tuile de la carte, la longueur du plus court
+ * chemin menant à une tuile cible (en pratique, celle du joueur).
+ * Ces distances sont calculées par un parcours en largeur depuis la cible, et sont
+ * partagées par tous les ennemis : pour se rapprocher de la cible, il suffit à un ennemi
+ * de choisir une tuile voisine dont la distance est plus petite que la sienne.
+ *
+ * Seules les tuiles vides sont praticables.
+ * Lorsqu'une tuile devient praticable (un mur de briques détruit par exemple), les
+ * distances peuvent être mises à jour localement sans refaire tout le parcours.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class FlowField {
+
+    /**
+     * La distance associée aux tuiles depuis lesquelles la cible est inaccessible.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    /**
+     * La carte sur laquelle les distances sont calculées.
+     */
+    private final GameMap map;
+
+    /**
+     * Le nombre de colonnes de la carte.
+     */
+    private final int width;
+
+    /**
+     * La distance de chaque tuile (rangées ligne par ligne) à la cible.
+     */
+    private final int[] distances;
+
+    /**
+     * La file utilisée pour le parcours en largeur.
+     */
+    private final int[] queue;
+
+    /**
+     * Crée une nouvelle instance de FlowField.
+     *
+     * @param map La carte sur laquelle les distances sont calculées.
+     */
+    public FlowField(GameMap map) {
+        this.map = map;
+        this.width = map.getWidth();
+        this.distances = new int[map.getHeight() * width];
+        this.queue = new int[distances.length];
+        Arrays.fill(distances, UNREACHABLE);
+    }
+
+    /**
+     * Estime la mémoire occupée par ce champ de distances (en octets).
+     *
+     * @return Une estimation de la mémoire occupée.
+     */
+    long heapBytes() {
+        return 16 + (2 * (16 + (4L * distances.length)));
+    }
+
+    /**
+     * Recalcule toutes les distances vers une nouvelle cible.
+     *
+     * @param row La ligne de la cible.
+     * @param column La colonne de la cible.
+     */
+    public void compute(int row, int column) {
+        Arrays.fill(distances, UNREACHABLE);
+        if (!map.isOnMap(row, column)) {
+            return;
+        }
+
+        int target = (row * width) + column;
+        distances[target] = 0;
+        queue[0] = target;
+        propagate(1);
+    }
+
+    /**
+     * Met à jour les distances après qu'une tuile est devenue praticable.
+     * Une telle modification ne peut que raccourcir des chemins : seules les tuiles dont
+     * la distance diminue sont visitées.
+     *
+     * @param row La ligne de la tuile devenue praticable.
+     * @param column La colonne de la tuile devenue praticable.
+     */
+    public void cellOpened(int row, int column) {
+        if (!map.isEmpty(row, column)) {
+            return;
+        }
+
+        int cell = (row * width) + column;
+        int best = UNREACHABLE;
+        best = Math.min(best, getDistance(row - 1, column));
+        best = Math.min(best, getDistance(row + 1, column));
+        best = Math.min(best, getDistance(row, column - 1));
+        best = Math.min(best, getDistance(row, column + 1));
+        if ((best != UNREACHABLE) && ((best + 1) < distances[cell])) {
+            distances[cell] = best + 1;
+            queue[0] = cell;
+            propagate(1);
+        }
+    }
+
+    /**
+     * Poursuit le parcours en largeur à partir des tuiles présentes dans la file.
+     * Les tuiles sont traitées par distance croissante, si bien que la première
+     * diminution de la distance d'une tuile est toujours la dernière.
+     *
+     * @param tail Le nombre de tuiles initialement dans la file.
+     */
+    private void propagate(int tail) {
+        int height = map.getHeight();
+        for (int head = 0; head < tail; head++) {
+            int cell = queue[head];
+            int row = cell / width;
+            int column = cell % width;
+            int next = distances[cell] + 1;
+
+            if ((row > 0) && relax(cell - width, row - 1, column, next)) {
+                queue[tail++] = cell - width;
+            }
+            if ((row < height - 1) && relax(cell + width, row + 1, column, next)) {
+                queue[tail++] = cell + width;
+            }
+            if ((column > 0) && relax(cell - 1, row, column - 1, next)) {
+                queue[tail++] = cell - 1;
+            }
+            if ((column < width - 1) && relax(cell + 1, row, column + 1, next)) {
+                queue[tail++] = cell + 1;
+            }
+        }
+    }
+
+    /**
+     * Diminue la distance d'une tuile praticable si cela raccourcit son chemin.
+     *
+     * @param cell L'indice de la tuile.
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     * @param distance La nouvelle distance proposée.
+     *
+     * @return Si la distance de la tuile a été diminuée.
+     */
+    private boolean relax(int cell, int row, int column, int distance) {
+        if ((distance < distances[cell]) && map.isEmpty(row, column)) {
+            distances[cell] = distance;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Donne la distance d'une tuile à la cible.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return La longueur du plus court chemin jusqu'à la cible, ou {@link #UNREACHABLE}
+     *         si la tuile n'est pas sur la carte ou si la cible est inaccessible.
+     */
+    public int getDistance(int row, int column) {
+        if (!map.isOnMap(row, column)) {
+            return UNREACHABLE;
+        }
+        return distances[(row * width) + column];
+    }
+
+}
@@ -0,0 +1,202 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+/**
+ * La classe GameConfiguration regroupe les paramètres d'une partie du Bomberman : la
+ * taille de la carte, la proportion de murs de briques et le nombre d'ennemis.
+ *
+ * La configuration standard correspond à la partie jouée dans l'interface graphique.
+ * Les grandes arènes (jusqu'à {@value #MAX_SIZE}x{@value #MAX_SIZE} tuiles, avec des
+ * dizaines de milliers d'ennemis) sont destinées aux simulations et aux tests de charge.
+ *
+ * Les instances de cette classe sont immuables.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class GameConfiguration {
+
+    /**
+     * Le nombre minimal de lignes et de colonnes d'une carte.
+     */
+    public static final int MIN_SIZE = 5;
+
+    /**
+     * Le nombre maximal de lignes et de colonnes d'une carte.
+     */
+    public static final int MAX_SIZE = 4096;
+
+    /**
+     * La proportion maximale de murs de briques sur la carte.
+     * Au-delà, il pourrait ne plus y avoir assez de tuiles vides pour les placer.
+     */
+    public static final double MAX_BRICK_RATIO = 0.5;
+
+    /**
+     * La configuration de la partie standard.
+     */
+    private static final GameConfiguration STANDARD = new GameConfiguration(11, 13, 0.3, 3);
+
+    /**
+     * Le nombre de lignes de la carte.
+     */
+    private final int height;
+
+    /**
+     * Le nombre de colonnes de la carte.
+     */
+    private final int width;
+
+    /**
+     * La proportion des tuiles de la carte occupées par des murs de briques.
+     */
+    private final double brickRatio;
+
+    /**
+     * Le nombre d'ennemis présents au début de la partie.
+     */
+    private final int enemyCount;
+
+    /**
+     * Crée une nouvelle instance de GameConfiguration.
+     *
+     * @param height Le nombre de lignes de la carte.
+     * @param width Le nombre de colonnes de la carte.
+     * @param brickRatio La proportion des tuiles de la carte occupées par des murs de
+     *        briques.
+     * @param enemyCount Le nombre d'ennemis présents au début de la partie.
+     *
+     * @throws IllegalArgumentException Si l'un des paramètres est en dehors des valeurs
+     *         autorisées.
+     */
+    public GameConfiguration(int height, int width, double brickRatio, int enemyCount) {
+        checkSize("hauteur", height);
+        checkSize("largeur", width);
+        if (!((0 <= brickRatio) && (brickRatio <= MAX_BRICK_RATIO))) {
+            throw new IllegalArgumentException(
+                    "Proportion de murs de briques invalide : " + brickRatio);
+        }
+        if (enemyCount < 0) {
+            throw new IllegalArgumentException("Nombre d'ennemis invalide : " + enemyCount);
+        }
+
+        this.height = height;
+        this.width = width;
+        this.brickRatio = brickRatio;
+        this.enemyCount = enemyCount;
+    }
+
+    /**
+     * Vérifie qu'une dimension de la carte fait partie des valeurs autorisées.
+     *
+     * @param name Le nom de la dimension.
+     * @param size La valeur de la dimension.
+     *
+     * @throws IllegalArgumentException Si la dimension est trop petite ou trop grande.
+     */
+    private static void checkSize(String name, int size) {
+        if ((size < MIN_SIZE) || (size > MAX_SIZE)) {
+            throw new IllegalArgumentException("La " + name + " de la carte doit être comprise entre "
+                    + MIN_SIZE + " et " + MAX_SIZE + " : " + size);
+        }
+    }
+
+    /**
+     * Donne la configuration de la partie standard : une carte de 11x13 tuiles, dont 30%
+     * sont des murs de briques, et 3 ennemis.
+     *
+     * @return La configuration standard.
+     */
+    public static GameConfiguration standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Donne la configuration d'une grande arène, avec la même proportion de murs de briques
+     * que la partie standard.
+     *
+     * @param height Le nombre de lignes de la carte.
+     * @param width Le nombre de colonnes de la carte.
+     * @param enemyCount Le nombre d'ennemis présents au début de la partie.
+     *
+     * @return La configuration de l'arène.
+     *
+     * @throws IllegalArgumentException Si l'un des paramètres est en dehors des valeurs
+     *         autorisées.
+     */
+    public static GameConfiguration largeArena(int height, int width, int enemyCount) {
+        return new GameConfiguration(height, width, STANDARD.brickRatio, enemyCount);
+    }
+
+    /**
+     * Donne le nombre de lignes de la carte.
+     *
+     * @return Le nombre de lignes de la carte.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Donne le nombre de colonnes de la carte.
+     *
+     * @return Le nombre de colonnes de la carte.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Donne la proportion des tuiles de la carte occupées par des murs de briques.
+     *
+     * @return La proportion de murs de briques.
+     */
+    public double getBrickRatio() {
+        return brickRatio;
+    }
+
+    /**
+     * Donne le nombre de murs de briques à placer sur la carte.
+     *
+     * @return Le nombre de murs de briques.
+     */
+    public int getBrickCount() {
+        return (int) (height * width * brickRatio);
+    }
+
+    /**
+     * Donne le nombre d'ennemis présents au début de la partie.
+     *
+     * @return Le nombre d'ennemis.
+     */
+    public int getEnemyCount() {
+        return enemyCount;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return height + "x" + width + ", " + enemyCount + " ennemis";
+    }
+
+}
@@ -1,27 +1,144 @@
 package fr.univartois.butinfo.ihm.model;
 
-import fr.univartois.butinfo.ihm.controller.BombermanController;
 import fr.univartois.butinfo.ihm.controller.IGameController;
-import javafx.animation.Timeline;
-import javafx.animation.KeyFrame;
-import javafx.util.Duration;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 
 public class GameFacade {
 
+    /**
+     * Le nombre de pas de simulation correspondant à une seconde de jeu.
+     */
+    public static final int TICKS_PER_SECOND = 10;
+
+    /**
+     * La valeur indiquant qu'un personnage ne se déplace pas.
+     */
+    public static final int NO_MOVE = -1;
+
+    /**
+     * La durée pendant laquelle une tuile reste en train d'exploser (en secondes).
+     */
+    private static final int EXPLOSION_DURATION = 3;
+
+    private final GameConfiguration configuration;
     private final GameMap gameMap;
+    private final OccupancyGrid occupancy;
+    private final GameScheduler scheduler;
     private IGameController controller;
     private Player player;
     private boolean gameEnded = false;
 
-    private final List<AbstractBomb> activeBombs = new ArrayList<>();
+    // Les bombes posées sur la carte, indexées par la tuile où elles se trouvent
+    private final Map<Integer, AbstractBomb> activeBombs = new LinkedHashMap<>();
 
     private final List<Enemy> enemies = new ArrayList<>();
-    private static final int ENEMY_COUNT = 3;
+    private static final String[] ENEMY_NAMES = { "goblin", "rourke", "minotaur" };
+
+    // La distance minimale (en lignes ou en colonnes) entre le joueur et un ennemi au début
+    // de la partie
+    private static final int SPAWN_DISTANCE = 3;
+
+    // Le nombre de tuiles tirées au hasard dans un bloc avant de le parcourir entièrement
+    private static final int SPAWN_ATTEMPTS = 8;
+
+    // La graine et le générateur de nombres aléatoires de la partie, dont sont issus ceux
+    // de la carte et des ennemis
+    private final long seed;
+    private final SplittableRandom random;
+
+    // Le nombre d'ennemis à partir duquel ils choisissent leurs déplacements en parallèle
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    // La tuile choisie par chaque ennemi lors de la phase de décision en cours
+    private int[] intendedMoves = new int[0];
+
+    // Les décalages correspondant aux quatre directions (haut, bas, gauche, droite)
+    private static final int[] ROW_OFFSETS = { -1, 1, 0, 0 };
+    private static final int[] COLUMN_OFFSETS = { 0, 0, -1, 1 };
+
+    // Les tuiles menacées par les bombes en attente
+    private final DangerMap dangerMap;
+
+    // Les distances de chaque tuile au joueur, partagées par tous les ennemis
+    private final FlowField flowField;
+    private boolean flowFieldOutdated = true;
+
+    // Liste réutilisée pour récupérer les personnages touchés par une explosion
+    private final List<AbstractCharacter> hitCharacters = new ArrayList<>();
+
+    // Explosion réutilisée pour traiter les bombes
+    private final Blast blast = new Blast();
+    private final Blast footprint = new Blast();
+    private Consumer<Blast> blastListener;
+
+    // L'enregistreur des commandes du joueur, s'il y en a un
+    private GameRecorder recorder;
+
+    // Le prochain déplacement programmé des ennemis
+    private ScheduledTask enemyPhase;
+
+    // Les explosions dont les tuiles ne sont pas encore revenues à leur état normal, dans
+    // l'ordre où elles se termineront
+    private final ArrayDeque<PendingExplosion> pendingExplosions = new ArrayDeque<>();
+
+    // Le masque des ennemis (désignés par leur position dans la liste) qui se sont déplacés
+    // ou ont été touchés depuis qu'il a été vidé
+    private long[] dirtyEnemies = new long[0];
 
+    // Les tuiles déjà touchées par la réaction en chaîne en cours de résolution
+    private final long[] visitedCells;
+    private final ArrayDeque<AbstractBomb> chainedBombs = new ArrayDeque<>();
+
+    /**
+     * Crée une nouvelle partie avec la configuration standard.
+     */
     public GameFacade() {
-        this.gameMap = GameMapFactory.createMapWithRandomBrickWalls(11, 13, (int) (11 * 13 * 0.3));
+        this(GameConfiguration.standard());
+    }
+
+    /**
+     * Crée une nouvelle partie, dont la graine est tirée au hasard.
+     *
+     * @param configuration La configuration de la partie.
+     */
+    public GameFacade(GameConfiguration configuration) {
+        this(configuration, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Crée une nouvelle partie.
+     * Tous les tirages aléatoires de la partie (génération de la carte, placement et
+     * déplacements des ennemis) sont issus de la graine donnée : une même graine donne
+     * donc toujours la même partie, quel que soit le nombre de fils d'exécution utilisés.
+     *
+     * @param configuration La configuration de la partie.
+     * @param seed La graine de la partie.
+     */
+    public GameFacade(GameConfiguration configuration, long seed) {
+        this(configuration, seed, new SplittableRandom(seed));
+    }
+
+    // Crée une nouvelle partie, dont la carte est générée à partir du générateur donné
+    private GameFacade(GameConfiguration configuration, long seed, SplittableRandom random) {
+        this(configuration, seed, random, GameMapFactory.createMap(configuration, random.split()), 0);
+    }
+
+    // Crée une partie sur une carte existante, dont le temps commence au pas donné
+    private GameFacade(GameConfiguration configuration, long seed, SplittableRandom random,
+            GameMap gameMap, long tick) {
+        this.configuration = configuration;
+        this.seed = seed;
+        this.random = random;
+        this.gameMap = gameMap;
+        this.scheduler = new GameScheduler(tick);
+        this.occupancy = new OccupancyGrid(gameMap.getHeight(), gameMap.getWidth());
+        this.flowField = new FlowField(gameMap);
+        this.dangerMap = new DangerMap(gameMap);
+        this.visitedCells = new long[((gameMap.getHeight() * gameMap.getWidth()) + 63) >>> 6];
     }
 
     /**
@@ -45,29 +162,138 @@ public class GameFacade {
         }
 
         placeCharacter(player);
+        occupancy.add(player);
 
         if (controller != null) {
             controller.bindCharacterToView(player);
-            controller.bindBombCountToView(player);
-            controller.bindHealthToView(player);
+            controller.updateBombCount(player);
+            controller.updateCharacterHealth(player);
         }
         enemies.clear();
+        spawnEnemies();
+        connectSpawnPoints();
+        scheduleEnemyPhase();
+    }
+
+    /**
+     * Place les ennemis de la partie en les répartissant sur toute la carte.
+     * L'intérieur de la carte est découpé en blocs carrés, au moins aussi nombreux que les
+     * ennemis, et chaque ennemi est placé sur une tuile libre d'un bloc différent.
+     * Les blocs choisis sont régulièrement espacés, et les tuiles trop proches du joueur
+     * sont évitées.
+     *
+     * @throws IllegalStateException Si la carte n'a pas assez de tuiles libres pour placer
+     *         tous les ennemis.
+     */
+    private void spawnEnemies() {
+        int count = configuration.getEnemyCount();
+        if (count == 0) {
+            return;
+        }
 
-        String[] enemyNames = { "goblin", "rourke", "minotaur" };
+        int innerHeight = gameMap.getHeight() - 2;
+        int innerWidth = gameMap.getWidth() - 2;
+        int side = Math.max(1, (int) Math.sqrt(((double) innerHeight * innerWidth) / count));
+        int blockColumns = (innerWidth + side - 1) / side;
+        int nbBlocks = ((innerHeight + side - 1) / side) * blockColumns;
+        dirtyEnemies = new long[(count + 63) >>> 6];
 
-        for (int i = 0; i < ENEMY_COUNT && i < enemyNames.length; i++) {
-            Enemy enemy = new Enemy(enemyNames[i]);
-            placeCharacter(enemy);
+        for (int i = 0; i < count; i++) {
+            // On prend le bloc au milieu de la i-ème tranche de blocs
+            int block = (int) ((((2L * i) + 1) * nbBlocks) / (2L * count));
+            int cell = findSpawnCell(block, nbBlocks, blockColumns, side);
 
+            Enemy enemy = new Enemy(ENEMY_NAMES[i % ENEMY_NAMES.length], random.split());
+            enemy.setPosition(cell / gameMap.getWidth(), cell % gameMap.getWidth());
+            occupancy.add(enemy);
+            enemy.index = enemies.size();
             enemies.add(enemy);
 
             if (controller != null) {
                 controller.bindCharacterToView(enemy);
             }
-            enemy.animate(this);
         }
     }
 
+    /**
+     * Relie par des tuiles vides la position du joueur et celles de tous les ennemis, afin
+     * qu'aucun personnage ne soit enfermé dans une poche de la carte.
+     * Seuls les murs de briques nécessaires sont détruits, et leurs tuiles sont redessinées.
+     *
+     * @see GameMapFactory#connectSpawnPoints(GameMap, int...)
+     */
+    private void connectSpawnPoints() {
+        int width = gameMap.getWidth();
+        int[] cells = new int[enemies.size() + 1];
+        cells[0] = (player.getRow() * width) + player.getColumn();
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            cells[i + 1] = (enemy.getRow() * width) + enemy.getColumn();
+        }
+
+        for (int cell : GameMapFactory.connectSpawnPoints(gameMap, cells)) {
+            fireTileChanged(cell / width, cell % width);
+        }
+        flowFieldOutdated = true;
+    }
+
+    /**
+     * Cherche une tuile libre où placer un ennemi, en commençant par un bloc donné puis,
+     * si celui-ci est plein, dans les blocs suivants.
+     *
+     * @param block L'indice du premier bloc dans lequel chercher.
+     * @param nbBlocks Le nombre de blocs découpant la carte.
+     * @param blockColumns Le nombre de blocs sur chaque ligne de blocs.
+     * @param side Le nombre de lignes et de colonnes de tuiles dans un bloc.
+     *
+     * @return L'indice de la tuile trouvée.
+     *
+     * @throws IllegalStateException Si aucune tuile libre n'est disponible sur la carte.
+     */
+    private int findSpawnCell(int block, int nbBlocks, int blockColumns, int side) {
+        for (int n = 0; n < nbBlocks; n++) {
+            int current = (block + n) % nbBlocks;
+            int firstRow = 1 + ((current / blockColumns) * side);
+            int firstColumn = 1 + ((current % blockColumns) * side);
+            int rows = Math.min(side, gameMap.getHeight() - 1 - firstRow);
+            int columns = Math.min(side, gameMap.getWidth() - 1 - firstColumn);
+
+            // Quelques tirages suffisent en général à trouver une tuile libre...
+            for (int attempt = 0; attempt < SPAWN_ATTEMPTS; attempt++) {
+                int row = firstRow + random.nextInt(rows);
+                int column = firstColumn + random.nextInt(columns);
+                if (canSpawnAt(row, column)) {
+                    return (row * gameMap.getWidth()) + column;
+                }
+            }
+
+            // ... mais il faut parcourir tout le bloc pour s'assurer qu'il est plein.
+            for (int row = firstRow; row < firstRow + rows; row++) {
+                for (int column = firstColumn; column < firstColumn + columns; column++) {
+                    if (canSpawnAt(row, column)) {
+                        return (row * gameMap.getWidth()) + column;
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("Aucune tuile vide disponible pour placer un ennemi");
+    }
+
+    /**
+     * Vérifie si un ennemi peut être placé sur une tuile au début de la partie.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return Si la tuile est vide, libre et assez éloignée du joueur.
+     */
+    private boolean canSpawnAt(int row, int column) {
+        return gameMap.isEmpty(row, column)
+                && !occupancy.isOccupiedByCharacter(row, column, null)
+                && ((Math.abs(row - player.getRow()) >= SPAWN_DISTANCE)
+                        || (Math.abs(column - player.getColumn()) >= SPAWN_DISTANCE));
+    }
+
     /**
      * Définit le contrôleur associé à cette façade.
      *
@@ -91,65 +317,134 @@ public class GameFacade {
     }
 
     /**
-     * Place un personnage aléatoirement sur une tuile vide de la carte du jeu.
+     * Donne la configuration de cette partie.
+     *
+     * @return La configuration de cette partie.
+     */
+    public GameConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Donne la graine de cette partie.
+     *
+     * @return La graine à partir de laquelle la partie a été créée.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Donne l'ordonnanceur qui cadence les actions différées de cette partie.
+     *
+     * @return L'ordonnanceur de cette partie.
+     */
+    public GameScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Donne la grille indiquant les personnages et les bombes présents sur chaque tuile.
+     *
+     * @return La grille d'occupation de la carte.
+     */
+    public OccupancyGrid getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Donne le pas de simulation courant de cette partie.
+     *
+     * @return Le nombre de pas écoulés depuis le début de la partie.
+     */
+    public long getCurrentTick() {
+        return scheduler.getCurrentTick();
+    }
+
+    /**
+     * Fait avancer la partie d'un pas de simulation.
+     * Cette méthode doit être appelée {@link #TICKS_PER_SECOND} fois par seconde pour
+     * jouer en temps réel, mais peut être appelée aussi vite que possible pour simuler
+     * une partie sans interface graphique.
+     */
+    public void tick() {
+        scheduler.tick();
+    }
+
+    /**
+     * Arrête définitivement cette partie : les bombes, les explosions et les
+     * déplacements des ennemis encore programmés sont annulés.
+     * Cette méthode doit être appelée lorsque la partie est abandonnée, afin que plus
+     * aucune action ne soit exécutée.
+     */
+    public void shutdown() {
+        gameEnded = true;
+        scheduler.shutdown();
+    }
+
+    /**
+     * Estime la mémoire occupée par cette partie (en octets).
+     * Seules les structures dont la taille dépend de la carte ou du nombre d'entités sont
+     * comptées précisément : l'estimation est donc surtout fiable pour les grandes
+     * parties.
+     *
+     * @return Une estimation de la mémoire occupée par la partie.
+     */
+    public long estimateHeapBytes() {
+        // Un ennemi occupe environ 80 octets (avec son générateur de nombres aléatoires),
+        // et une bombe déposée environ 64 (avec son entrée dans la table des bombes)
+        return 256 + gameMap.heapBytes() + occupancy.heapBytes() + dangerMap.heapBytes()
+                + flowField.heapBytes() + scheduler.heapBytes()
+                + (16 + (8L * visitedCells.length)) + (16 + (8L * dirtyEnemies.length))
+                + (16 + (4L * intendedMoves.length))
+                + (80L * enemies.size()) + (64L * activeBombs.size());
+    }
+
+    /**
+     * Indique si la partie est terminée.
+     *
+     * @return Si la partie est terminée (par une victoire ou une défaite).
+     */
+    public boolean isGameEnded() {
+        return gameEnded;
+    }
+
+    /**
+     * Place un personnage sur la carte du jeu.
+     * Le joueur est placé dans le coin supérieur gauche, entouré d'une zone libre.
+     * Les autres personnages sont placés aléatoirement sur une tuile vide.
      *
      * @param character Le personnage à placer sur la carte.
      * @throws IllegalStateException Si aucune tuile vide n'est disponible sur la carte.
      */
     public void placeCharacter(AbstractCharacter character) {
-        int row, col;
-
-        if (character instanceof Player) {
-            // Placer le joueur dans le coin supérieur gauche avec un espace libre
-            row = 1;
-            col = 1;
-        } else if (character instanceof Enemy) {
-            // Placer les ennemis dans différents coins avec des espaces libres
-            String enemyName = character.getName();
-            switch (enemyName) {
-                case "goblin":
-                    // Coin supérieur droit
-                    row = 1;
-                    col = gameMap.getWidth() - 2;
-                    break;
-                case "rourke":
-                    // Coin inférieur gauche
-                    row = gameMap.getHeight() - 2;
-                    col = 1;
-                    break;
-                case "minotaur":
-                    // Coin inférieur droit
-                    row = gameMap.getHeight() - 2;
-                    col = gameMap.getWidth() - 2;
-                    break;
-                default:
-                    // Fallback au centre
-                    row = gameMap.getHeight() / 2;
-                    col = gameMap.getWidth() / 2;
-                    break;
-            }
-        } else {
-            // Placement par défaut pour d'autres types de personnages
-            row = gameMap.getHeight() / 2;
-            col = gameMap.getWidth() / 2;
+        if (!(character instanceof Player)) {
+            placeCharacterRandomly(character);
+            return;
         }
 
-        // S'assurer que la position est valide et libre
-        if (gameMap.isOnMap(row, col)) {
-            Tile targetTile = gameMap.get(row, col);
-            // Forcer la tuile à être praticable
-            targetTile.setContent(TileContent.LAWN);
+        // Placer le joueur dans le coin supérieur gauche avec un espace libre
+        int row = 1;
+        int col = 1;
 
-            // Créer une zone de sécurité autour du personnage
-            createSafeZone(row, col);
+        // Forcer la tuile à être praticable
+        gameMap.setContent(row, col, TileContent.LAWN);
+        fireTileChanged(row, col);
 
-            character.setPosition(row, col);
-        } else {
-            // Si la position calculée n'est pas valide, utiliser l'ancienne méthode
-            placeCharacterRandomly(character);
-        }
+        // Créer une zone de sécurité autour du personnage
+        createSafeZone(row, col);
+
+        character.setPosition(row, col);
+        flowFieldOutdated = true;
     }
 
+    /**
+     * Donne les ennemis de cette partie, dans leur ordre de création.
+     * Les ennemis morts restent dans la liste, à la même position : la position d'un
+     * ennemi l'identifie donc pendant toute la partie.
+     *
+     * @return La liste des ennemis, vivants ou morts.
+     */
     public List<Enemy> getEnemies() {
         return enemies;
     }
@@ -170,40 +465,265 @@ public class GameFacade {
         tryMove(character, character.getRow(), character.getColumn() +1);
     }
 
-    public void tryMove(AbstractCharacter character, int newRow, int newCol) {
-        if (newRow >= 0 && newRow < getGameMap().getHeight() &&
-                newCol >= 0 && newCol < getGameMap().getWidth()) {
-            Tile targetTile = gameMap.get(newRow, newCol);
+    /**
+     * Déplace un personnage sur une tuile, si celle-ci est libre.
+     *
+     * @param character Le personnage à déplacer.
+     * @param newRow La ligne de la tuile visée.
+     * @param newCol La colonne de la tuile visée.
+     *
+     * @return Si le personnage a effectivement été déplacé.
+     */
+    public boolean tryMove(AbstractCharacter character, int newRow, int newCol) {
+        if (!canMoveTo(character, newRow, newCol)) {
+            return false;
+        }
+
+        character.setPosition(newRow, newCol);
+        if (character == player) {
+            // Les ennemis doivent maintenant poursuivre le joueur vers sa nouvelle position
+            flowFieldOutdated = true;
+        }
+        markDirty(character);
+        if (controller != null) {
+            controller.updateCharacterPosition(character);
+        }
+        return true;
+    }
 
-            // Vérifier si la tuile est praticable
-            if (targetTile.getContent() == TileContent.LAWN) {
+    /**
+     * Vérifie si un personnage peut se déplacer sur une tuile.
+     *
+     * @param character Le personnage à déplacer.
+     * @param row La ligne de la tuile visée.
+     * @param column La colonne de la tuile visée.
+     *
+     * @return Si la tuile est praticable, et qu'aucun autre personnage ni aucune bombe ne
+     *         s'y trouve.
+     */
+    public boolean canMoveTo(AbstractCharacter character, int row, int column) {
+        return gameMap.isOnMap(row, column)
+                // Vérifier si la tuile est praticable
+                && (gameMap.getContent(row, column) == TileContent.LAWN)
                 // Vérifier s'il n'y a pas d'autres personnages sur cette tuile
-                if (!isTileOccupiedByCharacter(newRow, newCol, character)) {
-                    // Vérifier s'il n'y a pas de bombe sur cette tuile
-                    if (!isTileOccupiedByBomb(newRow, newCol)) {
-                        character.setPosition(newRow, newCol);
-                        if (controller != null) {
-                            controller.updateCharacterPosition(character);
-                        }
-                    }
-                }
+                && !occupancy.isOccupiedByCharacter(row, column, character)
+                // Vérifier s'il n'y a pas de bombe sur cette tuile
+                && !occupancy.hasBomb(row, column);
+    }
+
+    /**
+     * Vérifie si un personnage peut se déplacer sur une tuile sans risquer d'y être touché
+     * par l'explosion d'une bombe déjà déposée.
+     *
+     * @param character Le personnage à déplacer.
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return Si la tuile est libre et hors de portée des bombes.
+     */
+    public boolean canMoveSafelyTo(AbstractCharacter character, int row, int column) {
+        return canMoveTo(character, row, column) && dangerMap.isSafe(row, column);
+    }
+
+    /**
+     * Donne la carte des tuiles menacées par les bombes en attente.
+     *
+     * @return La carte des dangers de cette partie.
+     */
+    public DangerMap getDangerMap() {
+        return dangerMap;
+    }
+
+    /**
+     * Vérifie si aucune bombe en attente ne menace une tuile.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return Si la tuile est hors de portée de toutes les bombes.
+     */
+    public boolean isSafe(int row, int column) {
+        return dangerMap.isSafe(row, column);
+    }
+
+    /**
+     * Fait faire à un personnage menacé par une bombe un pas vers une tuile voisine libre
+     * où il sera à l'abri, ou à défaut qui explosera plus tard que la sienne.
+     *
+     * @param character Le personnage à mettre à l'abri.
+     *
+     * @return Si le personnage s'est déplacé.
+     */
+    public boolean moveToSafety(AbstractCharacter character) {
+        return moveTo(character, findSafeCell(character));
+    }
+
+    /**
+     * Cherche la tuile voisine libre où un personnage menacé par une bombe sera à l'abri,
+     * ou à défaut qui explosera plus tard que la sienne.
+     * Cette méthode ne modifie pas l'état de la partie.
+     *
+     * @param character Le personnage à mettre à l'abri.
+     *
+     * @return L'indice de la tuile trouvée, ou {@link #NO_MOVE} si aucune tuile voisine
+     *         n'est plus sûre que celle du personnage.
+     */
+    public int findSafeCell(AbstractCharacter character) {
+        int row = character.getRow();
+        int column = character.getColumn();
+        int latest = dangerMap.getBlastTick(row, column);
+        int best = NO_MOVE;
+        for (int direction = 0; direction < 4; direction++) {
+            int nextRow = row + ROW_OFFSETS[direction];
+            int nextColumn = column + COLUMN_OFFSETS[direction];
+            int next = dangerMap.getBlastTick(nextRow, nextColumn);
+            if ((next > latest) && canMoveTo(character, nextRow, nextColumn)) {
+                latest = next;
+                best = (nextRow * gameMap.getWidth()) + nextColumn;
             }
         }
+        return best;
+    }
+
+    /**
+     * Donne les distances de chaque tuile à la position actuelle du joueur.
+     * Celles-ci ne sont recalculées que si le joueur s'est déplacé depuis le dernier appel.
+     *
+     * @return Le champ de distances vers le joueur.
+     */
+    public FlowField getFlowField() {
+        if (flowFieldOutdated && (player != null)) {
+            flowField.compute(player.getRow(), player.getColumn());
+            flowFieldOutdated = false;
+        }
+        return flowField;
+    }
+
+    /**
+     * Fait faire à un personnage un pas en direction du joueur, en suivant le plus court
+     * chemin praticable.
+     *
+     * @param character Le personnage à déplacer.
+     *
+     * @return Si le personnage a pu se rapprocher du joueur.
+     */
+    public boolean moveTowardsPlayer(AbstractCharacter character) {
+        getFlowField();
+        return moveTo(character, findCellTowardsPlayer(character));
+    }
+
+    /**
+     * Cherche la tuile voisine libre et hors de portée des bombes qui rapproche le plus
+     * un personnage du joueur.
+     * Cette méthode ne modifie pas l'état de la partie : elle suppose que le champ de
+     * distances vers le joueur est à jour (voir {@link #getFlowField()}).
+     *
+     * @param character Le personnage à déplacer.
+     *
+     * @return L'indice de la tuile trouvée, ou {@link #NO_MOVE} si aucune tuile voisine
+     *         ne rapproche le personnage du joueur.
+     */
+    int findCellTowardsPlayer(AbstractCharacter character) {
+        int row = character.getRow();
+        int column = character.getColumn();
+        int distance = flowField.getDistance(row, column);
+
+        // On choisit, parmi les tuiles voisines libres et hors de portée des bombes, celle
+        // qui est la plus proche du joueur (une tuile peut en effet être bloquée par un
+        // autre personnage).
+        int best = NO_MOVE;
+        for (int direction = 0; direction < 4; direction++) {
+            int nextRow = row + ROW_OFFSETS[direction];
+            int nextColumn = column + COLUMN_OFFSETS[direction];
+            int next = flowField.getDistance(nextRow, nextColumn);
+            if ((next < distance) && canMoveSafelyTo(character, nextRow, nextColumn)) {
+                distance = next;
+                best = (nextRow * gameMap.getWidth()) + nextColumn;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Déplace un personnage sur une tuile désignée par son indice, si celle-ci est libre.
+     *
+     * @param character Le personnage à déplacer.
+     * @param cell L'indice de la tuile visée, ou {@link #NO_MOVE}.
+     *
+     * @return Si le personnage a effectivement été déplacé.
+     */
+    public boolean moveTo(AbstractCharacter character, int cell) {
+        if (cell == NO_MOVE) {
+            return false;
+        }
+        return tryMove(character, cell / gameMap.getWidth(), cell % gameMap.getWidth());
+    }
+
+    /**
+     * Programme le prochain déplacement des ennemis, une seconde (de jeu) plus tard.
+     * Les ennemis se déplacent ainsi toutes les secondes tant que la partie n'est pas
+     * terminée.
+     */
+    private void scheduleEnemyPhase() {
+        scheduleEnemyPhase(TICKS_PER_SECOND);
+    }
+
+    // Programme le prochain déplacement des ennemis après le délai donné
+    private void scheduleEnemyPhase(long delay) {
+        enemyPhase = scheduler.schedule(delay, () -> {
+            if (!gameEnded) {
+                moveEnemies();
+                scheduleEnemyPhase();
+            }
+        });
+    }
+
+    /**
+     * Fait se déplacer tous les ennemis, en deux phases.
+     * Chaque ennemi choisit d'abord la tuile sur laquelle il veut se rendre, sans modifier
+     * l'état de la partie : lorsque les ennemis sont nombreux, ces décisions sont prises en
+     * parallèle.
+     * Les déplacements sont ensuite appliqués un par un, dans l'ordre de la liste des
+     * ennemis : lorsque plusieurs ennemis visent la même tuile, seul le premier s'y rend.
+     * Le résultat ne dépend donc pas du nombre de fils d'exécution utilisés.
+     */
+    void moveEnemies() {
+        int count = enemies.size();
+        if (intendedMoves.length < count) {
+            intendedMoves = new int[count];
+        }
+        int[] moves = intendedMoves;
+
+        // Le champ de distances ne doit plus être modifié pendant la phase de décision
+        getFlowField();
+        IntStream decisions = IntStream.range(0, count);
+        if (count >= PARALLEL_THRESHOLD) {
+            decisions = decisions.parallel();
+        }
+        decisions.forEach(i -> moves[i] = enemies.get(i).decideMove(this));
+
+        for (int i = 0; i < count; i++) {
+            moveTo(enemies.get(i), moves[i]);
+        }
     }
 
     public void movePlayerUp() {
+        record(PlayerCommand.MOVE_UP, 0);
         moveUp(player);
     }
 
     public void movePlayerDown() {
+        record(PlayerCommand.MOVE_DOWN, 0);
         moveDown(player);
     }
 
     public void movePlayerLeft() {
+        record(PlayerCommand.MOVE_LEFT, 0);
         moveLeft(player);
     }
 
     public void movePlayerRight() {
+        record(PlayerCommand.MOVE_RIGHT, 0);
         moveRight(player);
     }
 
@@ -211,8 +731,26 @@ public class GameFacade {
      * Fait déposer une bombe par le joueur à sa position actuelle.
      */
     public void dropBomb() {
-        // Utiliser la nouvelle méthode avec l'indice 0 (première bombe)
-        dropBombByIndex(0);
+        record(PlayerCommand.DROP_BOMB, 0);
+        // Utiliser la première bombe de l'inventaire
+        dropPlayerBomb(0);
+    }
+
+    /**
+     * Associe à cette partie un enregistreur, qui sera informé de toutes les commandes
+     * données par le joueur.
+     *
+     * @param recorder L'enregistreur de la partie (peut être {@code null}).
+     */
+    public void setRecorder(GameRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    // Transmet une commande du joueur à l'enregistreur de la partie, s'il y en a un
+    private void record(PlayerCommand command, int argument) {
+        if (recorder != null) {
+            recorder.record(command, argument);
+        }
     }
 
     /**
@@ -222,35 +760,170 @@ public class GameFacade {
      * @param column La colonne de la tuile à exploser.
      */
     public void explode(int row, int column) {
-        if (gameMap.isOnMap(row, column)) {
-            gameMap.get(row, column).explode();
+        blast.clear();
+        blast.add(row, column);
+        explode(blast);
+    }
+
+    /**
+     * Fait exploser une bombe : toutes les tuiles de sa zone d'effet sont traitées en une
+     * seule fois.
+     * Les bombes en attente qui se trouvent dans cette zone explosent immédiatement à leur
+     * tour, et ainsi de suite : la réaction en chaîne complète est résolue comme une seule
+     * explosion, dans laquelle chaque tuile n'est touchée qu'une seule fois.
+     *
+     * @param bomb La bombe qui explose.
+     */
+    public void explode(AbstractBomb bomb) {
+        int width = gameMap.getWidth();
+        blast.clear();
+        chainedBombs.add(bomb);
+        bomb.exploded = true;
+
+        // La réaction en chaîne est parcourue avec une file plutôt que récursivement, afin
+        // de supporter des cascades de n'importe quelle taille.
+        while (!chainedBombs.isEmpty()) {
+            AbstractBomb current = chainedBombs.poll();
+            removeBomb(current);
+            dangerMap.bombRemoved(current);
+
+            footprint.clear();
+            current.fillBlast(footprint);
+            for (int i = 0; i < footprint.size(); i++) {
+                int row = footprint.getRow(i);
+                int column = footprint.getColumn(i);
+                if (!gameMap.isOnMap(row, column)) {
+                    continue;
+                }
+
+                int cell = (row * width) + column;
+                if ((visitedCells[cell >>> 6] & (1L << cell)) != 0) {
+                    continue;
+                }
+                visitedCells[cell >>> 6] |= 1L << cell;
+                blast.add(row, column);
+
+                // Une bombe en attente sur cette tuile explose à son tour
+                if (occupancy.hasBomb(row, column)) {
+                    AbstractBomb other = activeBombs.get(cell);
+                    if ((other != null) && !other.exploded) {
+                        other.exploded = true;
+                        chainedBombs.add(other);
+                    }
+                }
+            }
         }
-        // Vérifier si le joueur est sur cette tuile
-        if (player != null && player.getRow() == row && player.getColumn() == column) {
-            player.decHealth();
+
+        // Les tuiles visitées sont oubliées pour la prochaine réaction en chaîne
+        for (int i = 0; i < blast.size(); i++) {
+            int cell = (blast.getRow(i) * width) + blast.getColumn(i);
+            visitedCells[cell >>> 6] &= ~(1L << cell);
         }
+        dangerMap.refresh();
 
-        // Vérifier si un ennemi est sur cette tuile
-        Iterator<Enemy> enemyIterator = enemies.iterator();
+        explode(blast);
+    }
+
+    /**
+     * Résout une explosion en un seul passage : les tuiles touchées explosent, les
+     * personnages qui s'y trouvent perdent un point de vie, puis la fin de partie est
+     * vérifiée une seule fois.
+     *
+     * @param blast L'explosion à résoudre.
+     */
+    public void explode(Blast blast) {
+        int width = gameMap.getWidth();
+        int[] explodedCells = new int[blast.size()];
+        int nbExploded = 0;
+        int nbHit = 0;
+        int nbKilled = 0;
         boolean enemyKilled = false;
-        while (enemyIterator.hasNext()) {
-            Enemy enemy = enemyIterator.next();
-            if (enemy.getRow() == row && enemy.getColumn() == column) {
-                enemy.decHealth();
-                // Supprimer l'ennemi de la liste s'il est mort
-                if (enemy.getHealth() <= 0) {
-                    enemyIterator.remove();
-                    enemyKilled = true;
+
+        for (int i = 0; i < blast.size(); i++) {
+            int row = blast.getRow(i);
+            int column = blast.getColumn(i);
+            if (!gameMap.isOnMap(row, column)) {
+                continue;
+            }
+
+            if (gameMap.explode(row, column)) {
+                explodedCells[nbExploded++] = (row * width) + column;
+                fireTileChanged(row, column);
+            }
+
+            // Récupérer les personnages qui se trouvent sur cette tuile
+            hitCharacters.clear();
+            occupancy.collectCharacters(row, column, hitCharacters);
+            for (AbstractCharacter character : hitCharacters) {
+                damage(character);
+                nbHit++;
+                if (!character.isAlive()) {
+                    nbKilled++;
+                    enemyKilled |= (character != player);
                 }
             }
         }
 
-        // Vérifier la victoire seulement si un ennemi a été tué
-        if (enemyKilled && enemies.isEmpty()) {
-            victory();
+        // Les tuiles touchées redeviennent normales ensemble à la fin de l'explosion
+        if (nbExploded > 0) {
+            scheduleEndExplosion(Arrays.copyOf(explodedCells, nbExploded),
+                    EXPLOSION_DURATION * TICKS_PER_SECOND);
+        }
+
+        // Vérifier la fin de partie une seule fois pour toute l'explosion
+        if (player != null && !player.isAlive()) {
+            gameOver();
+        } else if (enemyKilled) {
+            // Les ennemis morts restent dans la liste, afin que la position de chacun ne
+            // change jamais (voir getDirtyEnemies)
+            if (areAllEnemiesDead()) {
+                victory();
+            }
+        }
+
+        blast.setResult(nbExploded, nbHit, nbKilled);
+        if (blastListener != null) {
+            blastListener.accept(blast);
+        }
+    }
+
+    // Programme le retour à leur état normal des tuiles touchées par une explosion
+    private void scheduleEndExplosion(int[] cells, long delay) {
+        PendingExplosion explosion = new PendingExplosion(cells, getCurrentTick() + delay);
+        pendingExplosions.add(explosion);
+        scheduler.schedule(delay, () -> endExplosion(explosion));
+    }
+
+    // Remet dans leur état normal les tuiles touchées par une explosion
+    private void endExplosion(PendingExplosion explosion) {
+        pendingExplosions.remove(explosion);
+        int width = gameMap.getWidth();
+        for (int cell : explosion.cells) {
+            int row = cell / width;
+            int column = cell % width;
+            boolean opened = !gameMap.isEmpty(row, column);
+            gameMap.setExploded(row, column, false);
+            gameMap.setContent(row, column, TileContent.LAWN);
+            fireTileChanged(row, column);
+
+            // Un mur détruit peut ouvrir un chemin plus court vers le joueur
+            if (opened && !flowFieldOutdated) {
+                flowField.cellOpened(row, column);
+            }
         }
     }
 
+    /**
+     * Définit l'action à exécuter après la résolution de chaque explosion, par exemple
+     * pour collecter des statistiques.
+     *
+     * @param blastListener L'action à exécuter, qui reçoit l'explosion résolue (peut être
+     *        {@code null}).
+     */
+    public void setBlastListener(Consumer<Blast> blastListener) {
+        this.blastListener = blastListener;
+    }
+
     /**
      * Gère la fin de partie lorsque le joueur meurt.
      */
@@ -260,9 +933,13 @@ public class GameFacade {
             // Arrêter tous les ennemis
             for (Enemy enemy : enemies) {
                 if (enemy.getHealth() > 0) {
-                    enemy.decHealth();
+                    damage(enemy);
                 }
             }
+
+            if (controller != null) {
+                controller.showGameOverMessage();
+            }
         }
     }
 
@@ -273,39 +950,80 @@ public class GameFacade {
      * @param bombIndex L'indice de la bombe à déposer dans l'inventaire du joueur
      */
     public void dropBombByIndex(int bombIndex) {
+        record(PlayerCommand.DROP_BOMB_BY_INDEX, bombIndex);
+        dropPlayerBomb(bombIndex);
+    }
+
+    // Dépose à la position du joueur la bombe de son inventaire ayant l'indice donné
+    private void dropPlayerBomb(int bombIndex) {
         if (player != null && bombIndex >= 0 && bombIndex < player.getBombs().size()) {
             // Vérifier s'il n'y a pas déjà une bombe à la position du joueur
-            if (isTileOccupiedByBomb(player.getRow(), player.getColumn())) {
+            if (occupancy.hasBomb(player.getRow(), player.getColumn())) {
                 return; // Ne pas poser de bombe s'il y en a déjà une
             }
 
-            // Récupérer la bombe à l'indice spécifié
+            // Récupérer la bombe à l'indice spécifié et la placer à la position du joueur
             AbstractBomb bomb = player.getBombs().get(bombIndex);
-
-            // Placer la bombe à la position du joueur
-            bomb.setPosition(player.getRow(), player.getColumn());
-
-            // Ajouter la bombe à la liste des bombes actives
-            activeBombs.add(bomb);
+            placeBomb(bomb, player.getRow(), player.getColumn());
 
             // Retirer la bombe de l'inventaire
             player.removeBomb(bombIndex);
 
-            // Afficher la bombe si le contrôleur est disponible
-            if (controller != null && controller instanceof BombermanController) {
-                ((BombermanController) controller).displayBomb(bomb);
+            if (controller != null) {
+                controller.updateBombCount(player);
             }
+        }
+    }
 
-            // Déclencher l'explosion après le délai
-            Timeline timeline = new Timeline(new KeyFrame(
-                    Duration.seconds(bomb.getDelay()),
-                    e -> {
-                        bomb.explode();
-                        // Retirer la bombe de la liste des bombes actives
-                        activeBombs.remove(bomb);
-                    }
-            ));
-            timeline.play();
+    /**
+     * Dépose une bombe sur une tuile de la carte, et programme son explosion.
+     *
+     * @param bomb La bombe à déposer.
+     * @param row La ligne de la tuile où déposer la bombe.
+     * @param column La colonne de la tuile où déposer la bombe.
+     *
+     * @return Si la bombe a été déposée (il ne peut y avoir qu'une bombe par tuile).
+     */
+    public boolean placeBomb(AbstractBomb bomb, int row, int column) {
+        return placeBomb(bomb, row, column, (long) bomb.getDelay() * TICKS_PER_SECOND);
+    }
+
+    // Dépose une bombe sur une tuile, et programme son explosion après le délai donné
+    private boolean placeBomb(AbstractBomb bomb, int row, int column, long delay) {
+        if (!gameMap.isOnMap(row, column) || occupancy.hasBomb(row, column)) {
+            return false;
+        }
+
+        // Placer la bombe et l'ajouter à la liste des bombes actives
+        bomb.setPosition(row, column);
+        activeBombs.put((row * gameMap.getWidth()) + column, bomb);
+        occupancy.setBomb(row, column, true);
+
+        // Afficher la bombe si le contrôleur est disponible
+        if (controller != null) {
+            controller.displayBomb(bomb);
+        }
+
+        // Déclencher l'explosion après le délai
+        bomb.fuse = scheduler.schedule(delay, bomb::explode);
+        dangerMap.bombPlaced(bomb, bomb.fuse.getDeadline());
+        return true;
+    }
+
+    // Retire une bombe de la carte, au moment où elle explose
+    private void removeBomb(AbstractBomb bomb) {
+        if (bomb.fuse != null) {
+            bomb.fuse.cancel();
+            bomb.fuse = null;
+        }
+
+        int cell = (bomb.getRow() * gameMap.getWidth()) + bomb.getColumn();
+        if (activeBombs.get(cell) == bomb) {
+            activeBombs.remove(cell);
+            occupancy.setBomb(bomb.getRow(), bomb.getColumn(), false);
+            if (controller != null) {
+                controller.removeBomb(bomb);
+            }
         }
     }
 
@@ -324,38 +1042,41 @@ public class GameFacade {
             gameEnded = true;
 
             // Afficher le message de victoire via le contrôleur
-            if (controller != null && controller instanceof BombermanController) {
-                ((BombermanController) controller).showVictoryMessage();
+            if (controller != null) {
+                controller.showVictoryMessage();
             }
         }
     }
 
-    // Vérifier si une tuile est occupée par un personnage (joueur ou ennemi)
-    private boolean isTileOccupiedByCharacter(int row, int col, AbstractCharacter excludeCharacter) {
-        // Vérifier le joueur (sauf s'il s'agit du personnage à exclure)
-        if (player != null && player != excludeCharacter &&
-                player.getRow() == row && player.getColumn() == col) {
-            return true;
+    // Retire un point de vie à un personnage, et le retire de la grille s'il meurt
+    private void damage(AbstractCharacter character) {
+        character.decHealth();
+        if (!character.isAlive()) {
+            occupancy.remove(character);
         }
-
-        // Vérifier les ennemis (sauf s'il s'agit du personnage à exclure)
-        for (Enemy enemy : enemies) {
-            if (enemy != excludeCharacter && enemy.getRow() == row && enemy.getColumn() == col) {
-                return true;
-            }
+        markDirty(character);
+        if (controller != null) {
+            controller.updateCharacterHealth(character);
         }
-
-        return false;
     }
 
-    // Vérifier si une tuile est occupée par une bombe
-    private boolean isTileOccupiedByBomb(int row, int col) {
-        for (AbstractBomb bomb : activeBombs) {
-            if (bomb.getRow() == row && bomb.getColumn() == col) {
-                return true;
-            }
+    // Signale qu'un ennemi a changé de position ou de points de vie
+    private void markDirty(AbstractCharacter character) {
+        if ((character instanceof Enemy enemy) && (enemy.index >= 0)) {
+            dirtyEnemies[enemy.index >>> 6] |= 1L << enemy.index;
         }
-        return false;
+    }
+
+    /**
+     * Donne le masque de bits indiquant les ennemis (désignés par leur position dans la
+     * liste des ennemis, qui ne change jamais) qui ont changé depuis qu'il a été vidé.
+     * Le masque est celui de la partie, et non une copie : c'est à celui qui le lit de le
+     * vider.
+     *
+     * @return Le masque des ennemis ayant changé.
+     */
+    long[] getDirtyEnemies() {
+        return dirtyEnemies;
     }
 
     private void createSafeZone(int centerRow, int centerCol) {
@@ -363,10 +1084,10 @@ public class GameFacade {
         for (int row = centerRow - 1; row <= centerRow + 1; row++) {
             for (int col = centerCol - 1; col <= centerCol + 1; col++) {
                 if (gameMap.isOnMap(row, col)) {
-                    Tile tile = gameMap.get(row, col);
                     // Ne pas toucher aux murs solides
-                    if (tile.getContent() != TileContent.SOLID_WALL) {
-                        tile.setContent(TileContent.LAWN);
+                    if (gameMap.getContent(row, col) != TileContent.SOLID_WALL) {
+                        gameMap.setContent(row, col, TileContent.LAWN);
+                        fireTileChanged(row, col);
                     }
                 }
             }
@@ -375,17 +1096,182 @@ public class GameFacade {
 
     // Méthode pour placer un personnage aléatoirement sur une tuile vide
     private void placeCharacterRandomly(AbstractCharacter character) {
-        List<Tile> emptyTiles = gameMap.getEmptyTiles();
+        int nbEmptyTiles = gameMap.countEmptyTiles();
 
-        if (emptyTiles.isEmpty()) {
+        if (nbEmptyTiles == 0) {
             throw new IllegalStateException("Aucune tuile vide disponible pour placer le personnage");
         }
 
-        Random random = new Random();
-        int randomIndex = random.nextInt(emptyTiles.size());
-        Tile selectedTile = emptyTiles.get(randomIndex);
+        // La tuile est cherchée directement dans la carte, sans créer de vue par tuile vide
+        int cell = gameMap.findEmptyTile(random.nextInt(nbEmptyTiles));
+
+        character.setPosition(cell / gameMap.getWidth(), cell % gameMap.getWidth());
+    }
+
+    /**
+     * Copie l'état complet de cette partie, afin de pouvoir le sauvegarder.
+     * La copie ne partage aucune donnée avec la partie : elle peut être encodée et écrite
+     * sur un autre fil d'exécution pendant que la partie continue.
+     *
+     * @return La copie de l'état de la partie.
+     */
+    public GameSnapshot createSnapshot() {
+        GameSnapshot snapshot = new GameSnapshot(configuration, seed, getCurrentTick(),
+                gameEnded, gameMap.copyContents(), gameMap.copyExploded());
+        copyEntities(snapshot);
+
+        snapshot.enemies = new int[enemies.size() * GameSnapshot.ENEMY_FIELDS];
+        for (int i = 0, j = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            snapshot.enemies[j++] = enemyNameCode(enemy.getName());
+            snapshot.enemies[j++] = enemy.getRow();
+            snapshot.enemies[j++] = enemy.getColumn();
+            snapshot.enemies[j++] = enemy.getHealth();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Copie l'état des entités peu nombreuses de cette partie (le joueur, les bombes, les
+     * explosions et le prochain déplacement des ennemis), qui ne sont pas suivies
+     * individuellement.
+     *
+     * @param snapshot La copie de la partie dans laquelle copier ces entités.
+     */
+    void copyEntities(GameSnapshot snapshot) {
+        long tick = snapshot.tick;
+        if ((enemyPhase != null) && enemyPhase.isPending()) {
+            snapshot.enemyPhaseDelay = (int) (enemyPhase.getDeadline() - tick);
+        }
+
+        snapshot.player = new int[] { player.getRow(), player.getColumn(), player.getHealth() };
+        List<AbstractBomb> inventory = player.getBombs();
+        snapshot.inventory = new byte[inventory.size()];
+        for (int i = 0; i < snapshot.inventory.length; i++) {
+            snapshot.inventory[i] = GameSnapshot.typeOf(inventory.get(i));
+        }
+
+        snapshot.nbBombs = activeBombs.size();
+        snapshot.bombs = new byte[snapshot.nbBombs * GameSnapshot.BOMB_SIZE];
+        ByteBuffer bombs = ByteBuffer.wrap(snapshot.bombs);
+        for (AbstractBomb bomb : activeBombs.values()) {
+            bombs.put(GameSnapshot.typeOf(bomb));
+            bombs.putInt(bomb.getRow());
+            bombs.putInt(bomb.getColumn());
+            bombs.putInt((int) (bomb.fuse.getDeadline() - tick));
+        }
+
+        snapshot.explosionDelays = new int[pendingExplosions.size()];
+        snapshot.explosionCells = new int[pendingExplosions.size()][];
+        int index = 0;
+        for (PendingExplosion explosion : pendingExplosions) {
+            snapshot.explosionDelays[index] = (int) (explosion.deadline - tick);
+            snapshot.explosionCells[index] = explosion.cells.clone();
+            index++;
+        }
+    }
+
+    /**
+     * Restaure une partie sauvegardée.
+     * La partie reprend au pas de simulation de la sauvegarde, avec les bombes, les
+     * explosions et les déplacements des ennemis programmés aux mêmes échéances.
+     * Les générateurs de nombres aléatoires ne pouvant pas être sauvegardés, ils sont
+     * dérivés de la graine et du pas de la sauvegarde : la suite de la partie est donc
+     * déterminée par la sauvegarde, sans être forcément celle de la partie d'origine.
+     * La carte de la sauvegarde est copiée : celle-ci n'est jamais modifiée par la partie
+     * restaurée, et peut donc être restaurée plusieurs fois.
+     *
+     * Le contrôleur éventuel doit être associé à la partie restaurée avant d'en afficher
+     * l'état.
+     *
+     * @param snapshot La copie de l'état de la partie.
+     *
+     * @return La façade de la partie restaurée.
+     */
+    public static GameFacade restore(GameSnapshot snapshot) {
+        GameConfiguration configuration = snapshot.configuration;
+        // Les copies reçues par un DeltaDecoder partagent leurs tableaux avec les suivantes
+        GameMap map = new GameMap(configuration.getHeight(), configuration.getWidth(),
+                snapshot.contents.clone(), snapshot.exploded.clone());
+        SplittableRandom random = new SplittableRandom(
+                snapshot.seed + (snapshot.tick * 0x9E3779B97F4A7C15L));
+        GameFacade game = new GameFacade(configuration, snapshot.seed, random, map, snapshot.tick);
+        game.gameEnded = snapshot.gameEnded;
+
+        game.player = new Player();
+        game.player.setPosition(snapshot.player[0], snapshot.player[1]);
+        game.player.setHealth(snapshot.player[2]);
+        for (byte type : snapshot.inventory) {
+            game.player.getBombs().add(GameSnapshot.createBomb(type, game));
+        }
+        if (game.player.isAlive()) {
+            game.occupancy.add(game.player);
+        }
+
+        game.dirtyEnemies = new long[((snapshot.enemies.length / GameSnapshot.ENEMY_FIELDS) + 63) >>> 6];
+        for (int j = 0; j < snapshot.enemies.length; j += GameSnapshot.ENEMY_FIELDS) {
+            Enemy enemy = new Enemy(enemyName(snapshot.enemies[j]), random.split());
+            enemy.setPosition(snapshot.enemies[j + 1], snapshot.enemies[j + 2]);
+            enemy.setHealth(snapshot.enemies[j + 3]);
+            if (enemy.isAlive()) {
+                game.occupancy.add(enemy);
+            }
+            enemy.index = game.enemies.size();
+            game.enemies.add(enemy);
+        }
 
-        character.setPosition(selectedTile.getRow(), selectedTile.getColumn());
+        ByteBuffer bombs = ByteBuffer.wrap(snapshot.bombs);
+        for (int i = 0; i < snapshot.nbBombs; i++) {
+            AbstractBomb bomb = GameSnapshot.createBomb(bombs.get(), game);
+            game.placeBomb(bomb, bombs.getInt(), bombs.getInt(), bombs.getInt());
+        }
+
+        for (int i = 0; i < snapshot.explosionCells.length; i++) {
+            game.scheduleEndExplosion(snapshot.explosionCells[i], snapshot.explosionDelays[i]);
+        }
+
+        if (snapshot.enemyPhaseDelay > 0) {
+            game.scheduleEnemyPhase(snapshot.enemyPhaseDelay);
+        }
+        return game;
+    }
+
+    // Donne le nom d'un ennemi à partir de son indice parmi les noms utilisés pour les créer
+    static String enemyName(int code) {
+        return ENEMY_NAMES[Math.floorMod(code, ENEMY_NAMES.length)];
+    }
+
+    // Donne l'indice du nom d'un ennemi parmi les noms utilisés pour les créer
+    private static int enemyNameCode(String name) {
+        for (int i = 0; i < ENEMY_NAMES.length; i++) {
+            if (ENEMY_NAMES[i].equals(name)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    // Une explosion dont les tuiles ne sont pas encore revenues à leur état normal
+    private static final class PendingExplosion {
+
+        // Les indices des tuiles touchées par l'explosion
+        private final int[] cells;
+
+        // Le pas de simulation auquel l'explosion se termine
+        private final long deadline;
+
+        private PendingExplosion(int[] cells, long deadline) {
+            this.cells = cells;
+            this.deadline = deadline;
+        }
+
+    }
+
+    // Signale au contrôleur qu'une tuile a changé d'état
+    private void fireTileChanged(int row, int col) {
+        if (controller != null) {
+            controller.updateTileView(row, col, gameMap.get(row, col));
+        }
     }
 
 }
\ No newline at end of file
@@ -17,18 +17,34 @@
 package fr.univartois.butinfo.ihm.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * La classe GameMap représente la carte du jeu du Bomberman, sur laquelle les personnages
  * se déplacent et peuvent poser des bombes.
  *
+ * Le contenu des tuiles est stocké de manière compacte, ligne par ligne : un octet par
+ * tuile pour son contenu, et un bit par tuile pour indiquer si elle est en train
+ * d'exploser.
+ * Les objets {@link Tile} ne sont que des vues sur ces données, créées à la demande.
+ *
  * @author Romain Wallon
  *
  * @version 0.1.0
  */
 public class GameMap {
 
+    /**
+     * La valeur stockée pour une tuile qui n'a pas encore de contenu.
+     */
+    private static final byte NO_CONTENT = -1;
+
+    /**
+     * Les contenus possibles des tuiles, indexés par leur ordinal.
+     */
+    private static final TileContent[] CONTENTS = TileContent.values();
+
     /**
      * Le nombre de lignes de tuiles dans cette carte.
      */
@@ -40,9 +56,20 @@ public class GameMap {
     private int width;
 
     /**
-     * Les tuiles qui constituent cette carte.
+     * L'ordinal du contenu de chaque tuile de cette carte.
      */
-    private Tile[][] tiles;
+    private byte[] contents;
+
+    /**
+     * Le masque de bits indiquant les tuiles qui sont en train d'exploser.
+     */
+    private long[] exploded;
+
+    /**
+     * Le masque de bits indiquant les tuiles dont le contenu ou l'état d'explosion a
+     * changé depuis que ce masque a été vidé.
+     */
+    private long[] dirty;
 
     /**
      * Crée une nouvelle instance de GameMap.
@@ -53,19 +80,73 @@ public class GameMap {
     public GameMap(int height, int width) {
         this.width = width;
         this.height = height;
-        this.tiles = new Tile[height][width];
+        this.contents = new byte[height * width];
+        this.exploded = new long[((height * width) + 63) >>> 6];
+        this.dirty = new long[exploded.length];
         init();
     }
 
     /**
-     * Crée les tuiles qui constituent cette carte.
+     * Crée une nouvelle instance de GameMap à partir du contenu de ses tuiles, tel qu'il
+     * est stocké (voir {@link #copyContents()} et {@link #copyExploded()}).
+     * Les tableaux donnés sont utilisés directement, sans être copiés.
+     *
+     * @param height Le nombre de lignes de tuiles dans la carte.
+     * @param width Le nombre de colonnes de tuiles dans la carte.
+     * @param contents L'ordinal du contenu de chaque tuile de la carte.
+     * @param exploded Le masque de bits indiquant les tuiles en train d'exploser.
+     */
+    GameMap(int height, int width, byte[] contents, long[] exploded) {
+        this.width = width;
+        this.height = height;
+        this.contents = contents;
+        this.exploded = exploded;
+        this.dirty = new long[exploded.length];
+    }
+
+    /**
+     * Donne une copie de l'ordinal du contenu de chaque tuile de cette carte.
+     *
+     * @return Le contenu des tuiles, rangées ligne par ligne.
+     */
+    byte[] copyContents() {
+        return contents.clone();
+    }
+
+    /**
+     * Donne une copie du masque de bits indiquant les tuiles en train d'exploser.
+     *
+     * @return Le masque des tuiles en train d'exploser.
+     */
+    long[] copyExploded() {
+        return exploded.clone();
+    }
+
+    /**
+     * Estime la mémoire occupée par cette carte (en octets).
+     *
+     * @return Une estimation de la mémoire occupée.
+     */
+    long heapBytes() {
+        return 16 + (16 + contents.length) + (2 * (16 + (8L * exploded.length)));
+    }
+
+    /**
+     * Donne le masque de bits indiquant les tuiles qui ont changé depuis qu'il a été vidé.
+     * Le masque est celui de la carte, et non une copie : c'est à celui qui le lit de le
+     * vider.
+     *
+     * @return Le masque des tuiles ayant changé.
+     */
+    long[] getDirtyTiles() {
+        return dirty;
+    }
+
+    /**
+     * Initialise les tuiles qui constituent cette carte, qui n'ont encore aucun contenu.
      */
     private void init() {
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                tiles[i][j] = new Tile(i, j);
-            }
-        }
+        Arrays.fill(contents, NO_CONTENT);
     }
 
     /**
@@ -101,6 +182,8 @@ public class GameMap {
 
     /**
      * Donne une tuile à une position donnée.
+     * La tuile obtenue est une vue sur les données de cette carte : elle reflète toujours
+     * l'état courant de la position correspondante.
      *
      * @param row La ligne de la tuile à récupérer.
      * @param column La colonne de la tuile à récupérer.
@@ -108,11 +191,114 @@ public class GameMap {
      * @return La tuile à la position donnée.
      */
     public Tile get(int row, int column) {
-        return tiles[row][column];
+        return new Tile(this, row, column);
+    }
+
+    /**
+     * Donne le contenu de la tuile à une position donnée.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return Le contenu de la tuile, ou {@code null} si elle n'en a pas encore.
+     */
+    public TileContent getContent(int row, int column) {
+        byte ordinal = contents[(row * width) + column];
+        return (ordinal == NO_CONTENT) ? null : CONTENTS[ordinal];
+    }
+
+    /**
+     * Change le contenu de la tuile à une position donnée.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     * @param content Le nouveau contenu de la tuile.
+     */
+    public void setContent(int row, int column, TileContent content) {
+        int index = (row * width) + column;
+        byte ordinal = (content == null) ? NO_CONTENT : (byte) content.ordinal();
+        if (contents[index] != ordinal) {
+            contents[index] = ordinal;
+            dirty[index >>> 6] |= 1L << index;
+        }
+    }
+
+    /**
+     * Vérifie si la tuile à une position donnée est vide.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return Si la tuile est vide.
+     *
+     * @see Tile#isEmpty()
+     */
+    public boolean isEmpty(int row, int column) {
+        return isEmpty(contents[(row * width) + column]);
+    }
+
+    /**
+     * Vérifie si un contenu stocké dans cette carte est vide.
+     *
+     * @param ordinal L'ordinal du contenu.
+     *
+     * @return Si le contenu est vide.
+     */
+    private static boolean isEmpty(byte ordinal) {
+        return (ordinal == NO_CONTENT) || CONTENTS[ordinal].isEmpty();
+    }
+
+    /**
+     * Vérifie si la tuile à une position donnée est en train d'exploser.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return Si la tuile est en train d'exploser.
+     */
+    public boolean isExploded(int row, int column) {
+        int index = (row * width) + column;
+        return (exploded[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Change l'état d'explosion de la tuile à une position donnée.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     * @param value Si la tuile est en train d'exploser.
+     */
+    public void setExploded(int row, int column, boolean value) {
+        int index = (row * width) + column;
+        long word = exploded[index >>> 6];
+        long changed = value ? (word | (1L << index)) : (word & ~(1L << index));
+        if (changed != word) {
+            exploded[index >>> 6] = changed;
+            dirty[index >>> 6] |= 1L << index;
+        }
+    }
+
+    /**
+     * Fait exploser la tuile à une position donnée si son contenu peut être détruit.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return Si la tuile a effectivement explosé.
+     */
+    public boolean explode(int row, int column) {
+        TileContent content = getContent(row, column);
+        if ((content != null) && content.isDestroyableByExplosion()) {
+            setExploded(row, column, true);
+            return true;
+        }
+        return false;
     }
 
     /**
      * Donne la liste des tuiles qui sont vides sur cette carte.
+     * Une vue est créée pour chacune d'elles : pour en choisir une seule, il vaut mieux
+     * utiliser {@link #countEmptyTiles()} et {@link #findEmptyTile(int)}.
      *
      * @return La liste des tuiles vides.
      *
@@ -121,10 +307,10 @@ public class GameMap {
     public List<Tile> getEmptyTiles() {
         List<Tile> emptyTiles = new ArrayList<>();
 
-        for (int i = 0; i < height; i++) {
-            for (int j = 0; j < width; j++) {
-                if (tiles[i][j].isEmpty()) {
-                    emptyTiles.add(tiles[i][j]);
+        for (int i = 0, index = 0; i < height; i++) {
+            for (int j = 0; j < width; j++, index++) {
+                if (isEmpty(contents[index])) {
+                    emptyTiles.add(new Tile(this, i, j));
                 }
             }
         }
@@ -132,4 +318,43 @@ public class GameMap {
         return emptyTiles;
     }
 
+    /**
+     * Compte les tuiles qui sont vides sur cette carte.
+     *
+     * @return Le nombre de tuiles vides.
+     *
+     * @see Tile#isEmpty()
+     */
+    public int countEmptyTiles() {
+        int count = 0;
+        for (byte ordinal : contents) {
+            if (isEmpty(ordinal)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Cherche une tuile vide de cette carte à partir de son rang parmi les tuiles vides,
+     * sans créer de {@link Tile}.
+     *
+     * @param rank Le rang de la tuile parmi les tuiles vides, rangées ligne par ligne
+     *        (entre 0 et {@link #countEmptyTiles()} exclu).
+     *
+     * @return L'indice de la tuile, rangée ligne par ligne.
+     *
+     * @throws IllegalArgumentException Si la carte a moins de {@code rank + 1} tuiles
+     *         vides.
+     */
+    int findEmptyTile(int rank) {
+        int remaining = rank;
+        for (int index = 0; index < contents.length; index++) {
+            if (isEmpty(contents[index]) && (remaining-- == 0)) {
+                return index;
+            }
+        }
+        throw new IllegalArgumentException("Pas assez de tuiles vides : " + rank);
+    }
+
 }
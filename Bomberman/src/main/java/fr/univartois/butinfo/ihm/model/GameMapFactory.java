@@ -15,8 +15,9 @@
  */
 package fr.univartois.butinfo.ihm.model;
 
-import java.util.List;
-import java.util.Random;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
 
 /**
  * La classe GameMapFactory est une classe utilitaire qui permet de créer
@@ -28,7 +29,15 @@ import java.util.Random;
  */
 public class GameMapFactory {
 
-    private static final Random RANDOM = new Random();
+    /**
+     * Le nombre de tuiles à partir duquel les murs de briques sont placés en parallèle.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 18;
+
+    /**
+     * Le nombre de lignes de chacune des bandes de la carte traitées en parallèle.
+     */
+    private static final int BAND_HEIGHT = 64;
 
     /**
      * Empêche la création d'instances de cette classe.
@@ -50,20 +59,20 @@ public class GameMapFactory {
 
         // On place les murs en haut et en bas de la carte.
         for (int i = 0; i < width; i++) {
-            map.get(0, i).setContent(TileContent.SOLID_WALL);
-            map.get(height - 1, i).setContent(TileContent.SOLID_WALL);
+            map.setContent(0, i, TileContent.SOLID_WALL);
+            map.setContent(height - 1, i, TileContent.SOLID_WALL);
         }
 
         // On place les murs à gauche et à droite de la carte.
         for (int i = 0; i < height; i++) {
-            map.get(i, 0).setContent(TileContent.SOLID_WALL);
-            map.get(i, width - 1).setContent(TileContent.SOLID_WALL);
+            map.setContent(i, 0, TileContent.SOLID_WALL);
+            map.setContent(i, width - 1, TileContent.SOLID_WALL);
         }
 
         // Entre les murs, il y a de l'herbe partout.
         for (int i = 1; i < (height - 1); i++) {
             for (int j = 1; j < (width - 1); j++) {
-                map.get(i, j).setContent(TileContent.LAWN);
+                map.setContent(i, j, TileContent.LAWN);
             }
         }
 
@@ -85,7 +94,7 @@ public class GameMapFactory {
         // On rajoute les murs à intervalle régulier.
         for (int i = 2; i < (height - 1); i += 2) {
             for (int j = 2; j < (width - 1); j += 2) {
-                map.get(i, j).setContent(TileContent.SOLID_WALL);
+                map.setContent(i, j, TileContent.SOLID_WALL);
             }
         }
 
@@ -104,17 +113,183 @@ public class GameMapFactory {
      * @return La carte qui a été créée.
      */
     public static GameMap createMapWithRandomBrickWalls(int height, int width, int nWalls) {
+        return createMapWithRandomBrickWalls(height, width, nWalls, new SplittableRandom());
+    }
+
+    /**
+     * Crée une carte avec des murs solides positionnés à intervalle régulier à l'intérieur
+     * de la carte, et un certain nombre de murs de briques répartis aléatoirement sur la
+     * carte.
+     *
+     * Les tuiles des briques sont tirées par un mélange de Fisher-Yates interrompu dès
+     * que toutes les briques sont placées, en temps linéaire.
+     * Sur les très grandes cartes, les bandes de {@value #BAND_HEIGHT} lignes sont
+     * traitées en parallèle, chacune avec son propre générateur issu de {@code random} :
+     * chaque bande reçoit un nombre de briques proportionnel à son nombre de tuiles vides,
+     * et la carte obtenue ne dépend que de la graine de {@code random}.
+     *
+     * @param height Le nombre de lignes dans la carte.
+     * @param width Le nombre de colonnes dans la carte.
+     * @param nWalls Le nombre de murs de briques à placer dans la carte.
+     * @param random Le générateur de nombres aléatoires utilisé pour placer les murs.
+     *
+     * @return La carte qui a été créée.
+     *
+     * @throws IllegalArgumentException Si la carte n'a pas assez de tuiles vides pour y
+     *         placer tous les murs de briques.
+     */
+    public static GameMap createMapWithRandomBrickWalls(int height, int width, int nWalls,
+            SplittableRandom random) {
         GameMap map = createMapWithRegularIntermediateWall(height, width);
+        if (((long) height * width) < PARALLEL_THRESHOLD) {
+            int[] cells = findEmptyCells(map, 0, height);
+            checkBrickCount(nWalls, cells.length);
+            shuffle(cells, nWalls, random);
+            placeBricks(map, cells, nWalls);
+            return map;
+        }
+
+        // Les tuiles vides de chaque bande sont d'abord recensées en parallèle
+        int nbBands = (height + BAND_HEIGHT - 1) / BAND_HEIGHT;
+        int[][] cells = new int[nbBands][];
+        IntStream.range(0, nbBands).parallel().forEach(band -> cells[band] = findEmptyCells(
+                map, band * BAND_HEIGHT, Math.min(height, (band + 1) * BAND_HEIGHT)));
 
-        // On choisit aléatoirement des tuiles vides pour y placer des murs de briques.
-        List<Tile> emptyTiles = map.getEmptyTiles();
-        for (int i = 0; i < nWalls; i++) {
-            int index = RANDOM.nextInt(emptyTiles.size());
-            Tile tile = emptyTiles.remove(index);
-            tile.setContent(TileContent.BRICK_WALL);
+        long nbEmpty = 0;
+        for (int[] bandCells : cells) {
+            nbEmpty += bandCells.length;
         }
+        checkBrickCount(nWalls, nbEmpty);
 
+        // Les générateurs des bandes sont créés dans l'ordre, pour ne pas dépendre de
+        // l'ordre dans lequel les bandes sont traitées
+        int[] counts = new int[nbBands];
+        SplittableRandom[] randoms = new SplittableRandom[nbBands];
+        long before = 0;
+        for (int band = 0; band < nbBands; band++) {
+            long after = before + cells[band].length;
+            counts[band] = (int) (((nWalls * after) / nbEmpty) - ((nWalls * before) / nbEmpty));
+            randoms[band] = random.split();
+            before = after;
+        }
+        IntStream.range(0, nbBands).parallel()
+                .forEach(band -> shuffle(cells[band], counts[band], randoms[band]));
+
+        // Les briques sont placées par un seul fil, les bandes pouvant partager des mots
+        // des masques de bits de la carte
+        for (int band = 0; band < nbBands; band++) {
+            placeBricks(map, cells[band], counts[band]);
+        }
         return map;
     }
 
+    /**
+     * Recense les tuiles vides d'une bande de la carte.
+     *
+     * @param map La carte à considérer.
+     * @param fromRow La première ligne de la bande.
+     * @param toRow La ligne suivant la dernière ligne de la bande.
+     *
+     * @return Les indices des tuiles vides de la bande.
+     */
+    private static int[] findEmptyCells(GameMap map, int fromRow, int toRow) {
+        int width = map.getWidth();
+        int[] cells = new int[(toRow - fromRow) * width];
+        int size = 0;
+        for (int row = fromRow; row < toRow; row++) {
+            for (int column = 0; column < width; column++) {
+                if (map.isEmpty(row, column)) {
+                    cells[size++] = (row * width) + column;
+                }
+            }
+        }
+        return Arrays.copyOf(cells, size);
+    }
+
+    /**
+     * Vérifie qu'il y a assez de tuiles vides pour placer les murs de briques.
+     *
+     * @param nWalls Le nombre de murs de briques à placer.
+     * @param nbEmpty Le nombre de tuiles vides.
+     *
+     * @throws IllegalArgumentException S'il n'y a pas assez de tuiles vides.
+     */
+    private static void checkBrickCount(int nWalls, long nbEmpty) {
+        if ((nWalls < 0) || (nWalls > nbEmpty)) {
+            throw new IllegalArgumentException("Impossible de placer " + nWalls
+                    + " murs de briques sur " + nbEmpty + " tuiles vides");
+        }
+    }
+
+    /**
+     * Mélange le début d'un tableau : ses premiers éléments sont tirés au hasard parmi
+     * tous ses éléments.
+     *
+     * @param cells Le tableau à mélanger.
+     * @param count Le nombre d'éléments à tirer.
+     * @param random Le générateur de nombres aléatoires à utiliser.
+     */
+    private static void shuffle(int[] cells, int count, SplittableRandom random) {
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(cells.length - i);
+            int cell = cells[i];
+            cells[i] = cells[j];
+            cells[j] = cell;
+        }
+    }
+
+    /**
+     * Place des murs de briques sur des tuiles de la carte.
+     *
+     * @param map La carte à modifier.
+     * @param cells Les indices des tuiles.
+     * @param count Le nombre de tuiles (au début du tableau) où placer un mur.
+     */
+    private static void placeBricks(GameMap map, int[] cells, int count) {
+        int width = map.getWidth();
+        for (int i = 0; i < count; i++) {
+            map.setContent(cells[i] / width, cells[i] % width, TileContent.BRICK_WALL);
+        }
+    }
+
+    /**
+     * Crée la carte d'une partie, avec des murs solides positionnés à intervalle régulier
+     * et des murs de briques répartis aléatoirement selon la configuration donnée.
+     *
+     * Les points d'apparition des personnages ne sont connus qu'au début de la partie :
+     * c'est alors qu'ils sont reliés par des tuiles vides (voir
+     * {@link #connectSpawnPoints(GameMap, int...)}).
+     *
+     * @param configuration La configuration de la partie.
+     * @param random Le générateur de nombres aléatoires utilisé pour placer les murs.
+     *
+     * @return La carte qui a été créée.
+     */
+    public static GameMap createMap(GameConfiguration configuration, SplittableRandom random) {
+        int height = configuration.getHeight();
+        int width = configuration.getWidth();
+
+        // Sur les petites cartes, il peut y avoir moins de tuiles vides que de briques.
+        int emptyTiles = ((height - 2) * (width - 2)) - (((height - 2) / 2) * ((width - 2) / 2));
+        int nWalls = Math.min(configuration.getBrickCount(), emptyTiles);
+        return createMapWithRandomBrickWalls(height, width, nWalls, random);
+    }
+
+    /**
+     * Relie des points d'apparition par des tuiles vides, en détruisant le moins de murs
+     * de briques possible (voir {@link SpawnConnector}).
+     * Si les points sont déjà reliés, la carte n'est pas modifiée.
+     *
+     * @param map La carte à modifier.
+     * @param cells Les indices des tuiles des points d'apparition (au moins une).
+     *
+     * @return Les indices des tuiles dont le mur de briques a été détruit.
+     *
+     * @throws IllegalArgumentException Si l'un des points se trouve sur un mur solide, ou
+     *         si des murs solides empêchent de relier les points.
+     */
+    public static int[] connectSpawnPoints(GameMap map, int... cells) {
+        return new SpawnConnector(map).connect(cells);
+    }
+
 }
@@ -0,0 +1,168 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * La classe GameRecorder enregistre une partie du Bomberman, afin de pouvoir la rejouer
+ * à l'identique avec {@link GameReplay}.
+ *
+ * Une partie étant entièrement déterminée par sa configuration, sa graine et les
+ * commandes du joueur, seules ces informations sont enregistrées.
+ * Chaque commande est codée par l'écart (en pas de simulation) avec la commande
+ * précédente, son numéro et son éventuel argument, sous la forme d'entiers de taille
+ * variable : la plupart des commandes n'occupent ainsi que deux octets, avant même la
+ * compression du fichier.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class GameRecorder {
+
+    /**
+     * Les octets identifiant un fichier d'enregistrement ("BMRP").
+     */
+    static final int MAGIC = 0x424D5250;
+
+    /**
+     * La version du format des fichiers d'enregistrement.
+     * Elle change aussi lorsque la génération des parties à partir de leur graine change,
+     * les anciens enregistrements ne pouvant alors plus être rejoués à l'identique.
+     */
+    static final int VERSION = 3;
+
+    /**
+     * La partie enregistrée.
+     */
+    private final GameFacade game;
+
+    /**
+     * Les commandes enregistrées, codées sous la forme d'entiers de taille variable.
+     */
+    private byte[] commands = new byte[256];
+
+    /**
+     * Le nombre d'octets utilisés dans {@link #commands}.
+     */
+    private int size;
+
+    /**
+     * Le nombre de commandes enregistrées.
+     */
+    private int nbCommands;
+
+    /**
+     * Le pas de simulation auquel la dernière commande a été enregistrée.
+     */
+    private long lastTick;
+
+    /**
+     * Crée une nouvelle instance de GameRecorder.
+     * L'enregistrement ne commence qu'une fois l'enregistreur associé à la partie avec
+     * {@link GameFacade#setRecorder(GameRecorder)}.
+     *
+     * @param game La partie à enregistrer.
+     */
+    public GameRecorder(GameFacade game) {
+        this.game = game;
+    }
+
+    /**
+     * Enregistre une commande donnée par le joueur au pas de simulation courant.
+     *
+     * @param command La commande donnée.
+     * @param argument L'argument de la commande (ignoré si elle n'en a pas).
+     */
+    void record(PlayerCommand command, int argument) {
+        long tick = game.getCurrentTick();
+        writeVarLong(tick - lastTick);
+        writeVarLong(command.ordinal());
+        if (command.hasArgument()) {
+            writeVarLong(argument);
+        }
+        lastTick = tick;
+        nbCommands++;
+    }
+
+    /**
+     * Ajoute un entier positif aux commandes enregistrées, sur autant d'octets que
+     * nécessaire (7 bits par octet, le bit de poids fort indiquant si d'autres octets
+     * suivent).
+     *
+     * @param value L'entier à ajouter.
+     */
+    private void writeVarLong(long value) {
+        if (size + 10 > commands.length) {
+            commands = Arrays.copyOf(commands, commands.length * 2);
+        }
+        while ((value & ~0x7FL) != 0) {
+            commands[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        commands[size++] = (byte) value;
+    }
+
+    /**
+     * Donne le nombre de commandes enregistrées.
+     *
+     * @return Le nombre de commandes enregistrées.
+     */
+    public int getCommandCount() {
+        return nbCommands;
+    }
+
+    /**
+     * Écrit l'enregistrement de la partie dans un fichier.
+     * La partie est considérée comme terminée au pas de simulation courant.
+     *
+     * @param path Le chemin du fichier à écrire.
+     *
+     * @throws IOException Si une erreur se produit lors de l'écriture du fichier.
+     */
+    public void save(Path path) throws IOException {
+        try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(path))) {
+            DataOutputStream header = new DataOutputStream(file);
+            header.writeInt(MAGIC);
+            header.writeByte(VERSION);
+            header.flush();
+
+            DeflaterOutputStream deflater = new DeflaterOutputStream(file);
+            DataOutputStream output = new DataOutputStream(deflater);
+            GameConfiguration configuration = game.getConfiguration();
+            output.writeInt(configuration.getHeight());
+            output.writeInt(configuration.getWidth());
+            output.writeDouble(configuration.getBrickRatio());
+            output.writeInt(configuration.getEnemyCount());
+            output.writeLong(game.getSeed());
+            output.writeLong(game.getCurrentTick());
+            output.writeInt(nbCommands);
+            output.write(commands, 0, size);
+            output.flush();
+            deflater.finish();
+        }
+    }
+
+}
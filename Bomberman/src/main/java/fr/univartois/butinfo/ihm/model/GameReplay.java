@@ -0,0 +1,228 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * La classe GameReplay permet de rejouer une partie enregistrée par un
+ * {@link GameRecorder}.
+ *
+ * La partie est rejouée sans interface graphique, aussi vite que le permet le processeur :
+ * les commandes du joueur sont exécutées aux mêmes pas de simulation que lors de la partie
+ * d'origine, dont l'état final est ainsi reproduit à l'identique.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class GameReplay {
+
+    /**
+     * Les commandes du joueur, indexées par leur numéro.
+     */
+    private static final PlayerCommand[] COMMANDS = PlayerCommand.values();
+
+    /**
+     * La configuration de la partie enregistrée.
+     */
+    private final GameConfiguration configuration;
+
+    /**
+     * La graine de la partie enregistrée.
+     */
+    private final long seed;
+
+    /**
+     * Le pas de simulation auquel l'enregistrement s'est terminé.
+     */
+    private final long finalTick;
+
+    /**
+     * Le nombre de commandes enregistrées.
+     */
+    private final int nbCommands;
+
+    /**
+     * Les commandes enregistrées, codées sous la forme d'entiers de taille variable.
+     */
+    private final byte[] commands;
+
+    /**
+     * Crée une nouvelle instance de GameReplay.
+     *
+     * @param configuration La configuration de la partie enregistrée.
+     * @param seed La graine de la partie enregistrée.
+     * @param finalTick Le pas de simulation auquel l'enregistrement s'est terminé.
+     * @param nbCommands Le nombre de commandes enregistrées.
+     * @param commands Les commandes enregistrées.
+     */
+    private GameReplay(GameConfiguration configuration, long seed, long finalTick,
+            int nbCommands, byte[] commands) {
+        this.configuration = configuration;
+        this.seed = seed;
+        this.finalTick = finalTick;
+        this.nbCommands = nbCommands;
+        this.commands = commands;
+    }
+
+    /**
+     * Lit l'enregistrement d'une partie depuis un fichier.
+     *
+     * @param path Le chemin du fichier à lire.
+     *
+     * @return L'enregistrement lu.
+     *
+     * @throws IOException Si le fichier ne peut pas être lu, ou s'il ne contient pas un
+     *         enregistrement de partie.
+     */
+    public static GameReplay load(Path path) throws IOException {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path)))) {
+            if (input.readInt() != GameRecorder.MAGIC) {
+                throw new IOException("Ce fichier n'est pas un enregistrement de partie : " + path);
+            }
+            int version = input.readUnsignedByte();
+            if (version != GameRecorder.VERSION) {
+                throw new IOException("Version d'enregistrement non prise en charge : " + version);
+            }
+
+            DataInputStream data = new DataInputStream(new InflaterInputStream(input));
+            int height = data.readInt();
+            int width = data.readInt();
+            double brickRatio = data.readDouble();
+            int enemyCount = data.readInt();
+            long seed = data.readLong();
+            long finalTick = data.readLong();
+            int nbCommands = data.readInt();
+            byte[] commands = data.readAllBytes();
+
+            try {
+                GameConfiguration configuration = new GameConfiguration(
+                        height, width, brickRatio, enemyCount);
+                return new GameReplay(configuration, seed, finalTick, nbCommands, commands);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Enregistrement de partie invalide : " + path, e);
+            }
+        }
+    }
+
+    /**
+     * Donne la configuration de la partie enregistrée.
+     *
+     * @return La configuration de la partie.
+     */
+    public GameConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Donne la graine de la partie enregistrée.
+     *
+     * @return La graine de la partie.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Donne le pas de simulation auquel l'enregistrement s'est terminé.
+     *
+     * @return Le nombre de pas de la partie enregistrée.
+     */
+    public long getFinalTick() {
+        return finalTick;
+    }
+
+    /**
+     * Donne le nombre de commandes enregistrées.
+     *
+     * @return Le nombre de commandes enregistrées.
+     */
+    public int getCommandCount() {
+        return nbCommands;
+    }
+
+    /**
+     * Rejoue la partie enregistrée jusqu'à son dernier pas de simulation.
+     *
+     * @return La façade de la partie rejouée, dans l'état où était la partie d'origine à
+     *         la fin de l'enregistrement.
+     *
+     * @throws IllegalStateException Si les commandes enregistrées sont corrompues.
+     */
+    public GameFacade play() {
+        GameFacade game = new GameFacade(configuration, seed);
+        game.startGame();
+
+        ByteBuffer buffer = ByteBuffer.wrap(commands);
+        int remaining = nbCommands;
+        long nextTick = (remaining > 0) ? readVarLong(buffer) : Long.MAX_VALUE;
+        while (true) {
+            // Les commandes sont exécutées avant le pas au cours duquel elles ont été données
+            while (nextTick == game.getCurrentTick()) {
+                int ordinal = (int) readVarLong(buffer);
+                if (ordinal >= COMMANDS.length) {
+                    throw new IllegalStateException("Commande enregistrée inconnue : " + ordinal);
+                }
+                PlayerCommand command = COMMANDS[ordinal];
+                int argument = command.hasArgument() ? (int) readVarLong(buffer) : 0;
+                command.apply(game, argument);
+
+                remaining--;
+                nextTick = (remaining > 0) ? (nextTick + readVarLong(buffer)) : Long.MAX_VALUE;
+            }
+
+            if (game.getCurrentTick() >= finalTick) {
+                return game;
+            }
+            game.tick();
+        }
+    }
+
+    /**
+     * Lit un entier positif codé sur un nombre variable d'octets.
+     *
+     * @param buffer Le tampon dans lequel lire l'entier.
+     *
+     * @return L'entier lu.
+     *
+     * @throws IllegalStateException Si le tampon se termine avant la fin de l'entier.
+     */
+    private static long readVarLong(ByteBuffer buffer) {
+        try {
+            long value = 0;
+            for (int shift = 0;; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("Enregistrement de partie tronqué", e);
+        }
+    }
+
+}
@@ -0,0 +1,242 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import fr.univartois.butinfo.ihm.model.ScheduledTask.TaskList;
+
+/**
+ * La classe GameScheduler permet de programmer des actions qui doivent être exécutées
+ * après un certain nombre de pas de simulation.
+ * Le temps est ici entièrement simulé : il n'avance que lorsque {@link #tick()} est
+ * appelée, ce qui permet de faire tourner une partie sans horloge réelle.
+ *
+ * Les actions sont rangées dans une roue temporelle hiérarchique : chaque niveau
+ * comporte {@value #SLOTS} emplacements, et couvre une durée {@value #SLOTS} fois plus
+ * longue que le niveau précédent.
+ * Programmer ou annuler une action se fait en temps constant, et chaque pas n'a à
+ * traiter que les actions qui arrivent à échéance (ainsi que, de temps en temps, le
+ * contenu d'un seul emplacement d'un niveau supérieur, redistribué vers les niveaux
+ * inférieurs).
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class GameScheduler {
+
+    /**
+     * Le nombre de bits d'un pas de simulation utilisés pour indexer chaque niveau.
+     */
+    private static final int BITS = 8;
+
+    /**
+     * Le nombre d'emplacements de chaque niveau de la roue.
+     */
+    private static final int SLOTS = 1 << BITS;
+
+    /**
+     * Le masque permettant d'obtenir l'emplacement d'un pas dans un niveau.
+     */
+    private static final int MASK = SLOTS - 1;
+
+    /**
+     * Le nombre de niveaux de la roue.
+     * Les actions plus lointaines sont rangées dans une liste de débordement.
+     */
+    private static final int LEVELS = 3;
+
+    /**
+     * Les emplacements de chaque niveau de la roue.
+     */
+    private final TaskList[][] wheels = new TaskList[LEVELS][SLOTS];
+
+    /**
+     * Les actions trop lointaines pour être rangées dans la roue.
+     */
+    private final TaskList overflow = new TaskList();
+
+    /**
+     * Le pas de simulation courant.
+     */
+    private long currentTick;
+
+    /**
+     * Indique si cet ordonnanceur a été arrêté.
+     */
+    private boolean shutdown;
+
+    /**
+     * Crée une nouvelle instance de GameScheduler.
+     */
+    public GameScheduler() {
+        this(0);
+    }
+
+    /**
+     * Crée une nouvelle instance de GameScheduler, dont le temps commence à un pas de
+     * simulation donné (par exemple pour reprendre une partie sauvegardée).
+     *
+     * @param currentTick Le pas de simulation initial.
+     */
+    GameScheduler(long currentTick) {
+        this.currentTick = currentTick;
+        for (TaskList[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = new TaskList();
+            }
+        }
+    }
+
+    /**
+     * Donne le pas de simulation courant.
+     *
+     * @return Le pas de simulation courant.
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Programme une action qui sera exécutée après un certain nombre de pas.
+     *
+     * @param delay Le nombre de pas à attendre avant l'exécution (au moins 1).
+     * @param action L'action à exécuter.
+     *
+     * @return L'action programmée, qui peut être annulée.
+     *
+     * @throws IllegalStateException Si cet ordonnanceur a été arrêté.
+     */
+    public ScheduledTask schedule(long delay, Runnable action) {
+        if (shutdown) {
+            throw new IllegalStateException("L'ordonnanceur de la partie a été arrêté");
+        }
+        ScheduledTask task = new ScheduledTask(currentTick + Math.max(1, delay), action);
+        insert(task);
+        return task;
+    }
+
+    /**
+     * Range une action dans l'emplacement correspondant à son échéance.
+     *
+     * @param task L'action à ranger.
+     */
+    private void insert(ScheduledTask task) {
+        long remaining = task.deadline - currentTick;
+        for (int level = 0; level < LEVELS; level++) {
+            if (remaining < (1L << (BITS * (level + 1)))) {
+                int slot = (int) (task.deadline >>> (BITS * level)) & MASK;
+                wheels[level][slot].add(task);
+                return;
+            }
+        }
+        overflow.add(task);
+    }
+
+    /**
+     * Fait avancer le temps d'un pas, et exécute toutes les actions prévues pour ce pas.
+     */
+    public void tick() {
+        if (shutdown) {
+            return;
+        }
+        currentTick++;
+
+        // On redistribue les actions des niveaux supérieurs qui entrent dans la portée
+        // des niveaux inférieurs.
+        for (int level = 1; level <= LEVELS; level++) {
+            if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) {
+                break;
+            }
+            TaskList list = (level < LEVELS)
+                    ? wheels[level][(int) (currentTick >>> (BITS * level)) & MASK]
+                    : overflow;
+            cascade(list);
+        }
+
+        // On exécute ensuite toutes les actions arrivées à échéance.
+        TaskList due = wheels[0][(int) currentTick & MASK];
+        for (ScheduledTask task = due.poll(); task != null; task = due.poll()) {
+            task.action.run();
+            if (shutdown) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Redistribue les actions d'un emplacement selon leur échéance.
+     *
+     * @param list Les actions à redistribuer.
+     */
+    private void cascade(TaskList list) {
+        for (int n = list.size; n > 0; n--) {
+            insert(list.poll());
+        }
+    }
+
+    /**
+     * Donne le nombre d'actions encore en attente d'exécution.
+     *
+     * @return Le nombre d'actions en attente.
+     */
+    public int getPendingCount() {
+        int count = overflow.size;
+        for (TaskList[] wheel : wheels) {
+            for (TaskList list : wheel) {
+                count += list.size;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Estime la mémoire occupée par cet ordonnanceur et les actions qu'il contient (en
+     * octets).
+     *
+     * @return Une estimation de la mémoire occupée.
+     */
+    long heapBytes() {
+        // Chaque emplacement est une liste de 24 octets, et chaque action (avec son code)
+        // en occupe environ 64
+        return 32 + (LEVELS * ((16 + (4L * SLOTS)) + (24L * SLOTS))) + 24
+                + (64L * getPendingCount());
+    }
+
+    /**
+     * Arrête cet ordonnanceur : toutes les actions en attente sont annulées, et plus
+     * aucune action ne peut être programmée.
+     */
+    public void shutdown() {
+        shutdown = true;
+        overflow.cancelAll();
+        for (TaskList[] wheel : wheels) {
+            for (TaskList list : wheel) {
+                list.cancelAll();
+            }
+        }
+    }
+
+    /**
+     * Vérifie si cet ordonnanceur a été arrêté.
+     *
+     * @return Si cet ordonnanceur a été arrêté.
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+}
@@ -0,0 +1,668 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * La classe GameSnapshot représente une copie de l'état complet d'une partie du
+ * Bomberman, qui peut être écrite dans un fichier puis restaurée avec
+ * {@link GameFacade#restore(GameSnapshot)}.
+ *
+ * Une copie est obtenue avec {@link GameFacade#createSnapshot()}, et ne partage aucune
+ * donnée avec la partie : elle peut donc être encodée et écrite sur un autre fil
+ * d'exécution pendant que la partie continue.
+ *
+ * Les accesseurs publics donnent une vue en lecture seule de l'état copié, par exemple
+ * pour afficher l'état d'une partie distante reçu par un client.
+ *
+ * Le format binaire est versionné.
+ * Après un en-tête, la carte est écrite telle qu'elle est stockée (un octet par tuile et
+ * un bit par tuile en train d'exploser), puis chaque entité est écrite sous la forme
+ * d'un enregistrement de taille fixe.
+ * Les délais (avant l'explosion d'une bombe, la fin d'une explosion ou le prochain
+ * déplacement des ennemis) sont exprimés en pas de simulation restants.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class GameSnapshot {
+
+    /**
+     * Les octets identifiant un fichier de sauvegarde ("BMSN").
+     */
+    static final int MAGIC = 0x424D534E;
+
+    /**
+     * La version du format des fichiers de sauvegarde.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * La taille (en octets) de l'en-tête d'une sauvegarde.
+     */
+    private static final int HEADER_SIZE = (5 * Integer.BYTES) + Double.BYTES + (2 * Long.BYTES) + 1;
+
+    /**
+     * La taille (en octets) de l'enregistrement décrivant un personnage : ligne, colonne
+     * et points de vie.
+     */
+    private static final int CHARACTER_SIZE = 3 * Integer.BYTES;
+
+    /**
+     * Le nombre d'entiers décrivant un ennemi : son nom, sa ligne, sa colonne et ses
+     * points de vie.
+     */
+    static final int ENEMY_FIELDS = 4;
+
+    /**
+     * La taille (en octets) de l'enregistrement décrivant une bombe déposée : type,
+     * ligne, colonne et délai avant l'explosion.
+     */
+    static final int BOMB_SIZE = 1 + (3 * Integer.BYTES);
+
+    /**
+     * Les noms des types de bombes, indexés par leur code dans une sauvegarde.
+     */
+    private static final String[] BOMB_TYPES = { "bomb", "row-bomb", "column-bomb", "large-bomb" };
+
+    /**
+     * La configuration de la partie.
+     */
+    final GameConfiguration configuration;
+
+    /**
+     * La graine de la partie.
+     */
+    final long seed;
+
+    /**
+     * Le pas de simulation auquel la copie a été faite.
+     */
+    final long tick;
+
+    /**
+     * Indique si la partie était terminée.
+     */
+    final boolean gameEnded;
+
+    /**
+     * L'ordinal du contenu de chaque tuile de la carte.
+     */
+    final byte[] contents;
+
+    /**
+     * Le masque de bits indiquant les tuiles qui sont en train d'exploser.
+     */
+    final long[] exploded;
+
+    /**
+     * Le délai avant le prochain déplacement des ennemis, ou 0 s'il n'y en a pas.
+     */
+    int enemyPhaseDelay;
+
+    /**
+     * La position et les points de vie du joueur.
+     */
+    int[] player;
+
+    /**
+     * Le type de chaque bombe de l'inventaire du joueur.
+     */
+    byte[] inventory;
+
+    /**
+     * Le type, la position et le délai avant l'explosion de chaque bombe déposée (un
+     * enregistrement de {@value #BOMB_SIZE} octets par bombe).
+     */
+    byte[] bombs;
+
+    /**
+     * Le nombre de bombes déposées.
+     */
+    int nbBombs;
+
+    /**
+     * Le nom, la position et les points de vie de chaque ennemi ({@value #ENEMY_FIELDS}
+     * entiers par ennemi).
+     */
+    int[] enemies;
+
+    /**
+     * Le délai avant la fin de chaque explosion en cours.
+     */
+    int[] explosionDelays;
+
+    /**
+     * Les indices des tuiles touchées par chaque explosion en cours.
+     */
+    int[][] explosionCells;
+
+    /**
+     * Crée une nouvelle instance de GameSnapshot.
+     * Les entités de la partie doivent ensuite être renseignées.
+     *
+     * @param configuration La configuration de la partie.
+     * @param seed La graine de la partie.
+     * @param tick Le pas de simulation auquel la copie est faite.
+     * @param gameEnded Indique si la partie est terminée.
+     * @param contents Une copie du contenu des tuiles de la carte.
+     * @param exploded Une copie des tuiles en train d'exploser.
+     */
+    GameSnapshot(GameConfiguration configuration, long seed, long tick, boolean gameEnded,
+            byte[] contents, long[] exploded) {
+        this.configuration = configuration;
+        this.seed = seed;
+        this.tick = tick;
+        this.gameEnded = gameEnded;
+        this.contents = contents;
+        this.exploded = exploded;
+    }
+
+    /**
+     * Donne le pas de simulation auquel cette copie a été faite.
+     *
+     * @return Le pas de simulation de la copie.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Donne la configuration de la partie copiée.
+     *
+     * @return La configuration de la partie.
+     */
+    public GameConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    /**
+     * Donne la graine de la partie copiée.
+     *
+     * @return La graine de la partie.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Indique si la partie était terminée au moment de la copie.
+     *
+     * @return Si la partie était terminée.
+     */
+    public boolean isGameEnded() {
+        return gameEnded;
+    }
+
+    /**
+     * Donne le contenu d'une tuile de la carte.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return Le contenu de la tuile, ou {@code null} si elle n'en a pas.
+     */
+    public TileContent getContent(int row, int column) {
+        byte ordinal = contents[(row * configuration.getWidth()) + column];
+        return (ordinal < 0) ? null : TileContent.values()[ordinal];
+    }
+
+    /**
+     * Vérifie si une tuile de la carte était en train d'exploser.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return Si la tuile était en train d'exploser.
+     */
+    public boolean isExploded(int row, int column) {
+        int index = (row * configuration.getWidth()) + column;
+        return (exploded[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Donne la ligne où se trouvait le joueur.
+     *
+     * @return La ligne du joueur.
+     */
+    public int getPlayerRow() {
+        return player[0];
+    }
+
+    /**
+     * Donne la colonne où se trouvait le joueur.
+     *
+     * @return La colonne du joueur.
+     */
+    public int getPlayerColumn() {
+        return player[1];
+    }
+
+    /**
+     * Donne les points de vie du joueur.
+     *
+     * @return Les points de vie du joueur.
+     */
+    public int getPlayerHealth() {
+        return player[2];
+    }
+
+    /**
+     * Donne le nom des bombes de l'inventaire du joueur.
+     *
+     * @return La liste (non modifiable) des noms des bombes de l'inventaire.
+     */
+    public List<String> getInventory() {
+        List<String> names = new ArrayList<>(inventory.length);
+        for (byte type : inventory) {
+            names.add(BOMB_TYPES[type]);
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * Donne le nombre de bombes déposées sur la carte.
+     *
+     * @return Le nombre de bombes déposées.
+     */
+    public int getBombCount() {
+        return nbBombs;
+    }
+
+    /**
+     * Donne le nom d'une des bombes déposées.
+     *
+     * @param index L'indice de la bombe, entre 0 et {@link #getBombCount()} (exclu).
+     *
+     * @return Le nom de la bombe.
+     */
+    public String getBombName(int index) {
+        return BOMB_TYPES[bombs[index * BOMB_SIZE]];
+    }
+
+    /**
+     * Donne la ligne où se trouvait une des bombes déposées.
+     *
+     * @param index L'indice de la bombe, entre 0 et {@link #getBombCount()} (exclu).
+     *
+     * @return La ligne de la bombe.
+     */
+    public int getBombRow(int index) {
+        return ByteBuffer.wrap(bombs).getInt((index * BOMB_SIZE) + 1);
+    }
+
+    /**
+     * Donne la colonne où se trouvait une des bombes déposées.
+     *
+     * @param index L'indice de la bombe, entre 0 et {@link #getBombCount()} (exclu).
+     *
+     * @return La colonne de la bombe.
+     */
+    public int getBombColumn(int index) {
+        return ByteBuffer.wrap(bombs).getInt((index * BOMB_SIZE) + 1 + Integer.BYTES);
+    }
+
+    /**
+     * Donne le nombre d'ennemis de la partie.
+     *
+     * @return Le nombre d'ennemis.
+     */
+    public int getEnemyCount() {
+        return enemies.length / ENEMY_FIELDS;
+    }
+
+    /**
+     * Donne le nom d'un des ennemis.
+     *
+     * @param index L'indice de l'ennemi, entre 0 et {@link #getEnemyCount()} (exclu).
+     *
+     * @return Le nom de l'ennemi.
+     */
+    public String getEnemyName(int index) {
+        return GameFacade.enemyName(enemies[index * ENEMY_FIELDS]);
+    }
+
+    /**
+     * Donne la ligne où se trouvait un des ennemis.
+     *
+     * @param index L'indice de l'ennemi, entre 0 et {@link #getEnemyCount()} (exclu).
+     *
+     * @return La ligne de l'ennemi.
+     */
+    public int getEnemyRow(int index) {
+        return enemies[(index * ENEMY_FIELDS) + 1];
+    }
+
+    /**
+     * Donne la colonne où se trouvait un des ennemis.
+     *
+     * @param index L'indice de l'ennemi, entre 0 et {@link #getEnemyCount()} (exclu).
+     *
+     * @return La colonne de l'ennemi.
+     */
+    public int getEnemyColumn(int index) {
+        return enemies[(index * ENEMY_FIELDS) + 2];
+    }
+
+    /**
+     * Donne les points de vie d'un des ennemis.
+     *
+     * @param index L'indice de l'ennemi, entre 0 et {@link #getEnemyCount()} (exclu).
+     *
+     * @return Les points de vie de l'ennemi.
+     */
+    public int getEnemyHealth(int index) {
+        return enemies[(index * ENEMY_FIELDS) + 3];
+    }
+
+    /**
+     * Donne le code identifiant le type d'une bombe dans une sauvegarde.
+     *
+     * @param bomb La bombe à considérer.
+     *
+     * @return Le code du type de la bombe.
+     *
+     * @throws IllegalArgumentException Si le type de la bombe n'est pas connu.
+     */
+    static byte typeOf(AbstractBomb bomb) {
+        for (int i = 0; i < BOMB_TYPES.length; i++) {
+            if (BOMB_TYPES[i].equals(bomb.getName())) {
+                return (byte) i;
+            }
+        }
+        throw new IllegalArgumentException("Type de bombe inconnu : " + bomb.getName());
+    }
+
+    /**
+     * Crée une bombe à partir du code identifiant son type dans une sauvegarde.
+     *
+     * @param type Le code du type de la bombe.
+     * @param game La façade gérant la partie.
+     *
+     * @return La bombe créée.
+     *
+     * @throws IllegalArgumentException Si le code ne correspond à aucun type de bombe.
+     */
+    static AbstractBomb createBomb(byte type, GameFacade game) {
+        return switch (type) {
+            case 0 -> new Bomb(game);
+            case 1 -> new RowBomb(game);
+            case 2 -> new ColumnBomb(game);
+            case 3 -> new LargeBomb(game);
+            default -> throw new IllegalArgumentException("Type de bombe inconnu : " + type);
+        };
+    }
+
+    /**
+     * Encode cette copie dans le format binaire des sauvegardes.
+     *
+     * @return Le tampon contenant la sauvegarde, prêt à être lu.
+     */
+    public ByteBuffer encode() {
+        int size = HEADER_SIZE + contents.length + (exploded.length * Long.BYTES)
+                + (2 * Integer.BYTES) + CHARACTER_SIZE + inventory.length
+                + Integer.BYTES + (nbBombs * BOMB_SIZE)
+                + Integer.BYTES + (enemies.length * Integer.BYTES)
+                + Integer.BYTES;
+        for (int[] cells : explosionCells) {
+            size += (2 * Integer.BYTES) + (cells.length * Integer.BYTES);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(configuration.getHeight());
+        buffer.putInt(configuration.getWidth());
+        buffer.putDouble(configuration.getBrickRatio());
+        buffer.putInt(configuration.getEnemyCount());
+        buffer.putLong(seed);
+        buffer.putLong(tick);
+        buffer.put((byte) (gameEnded ? 1 : 0));
+
+        // La carte, telle qu'elle est stockée en mémoire
+        buffer.put(contents);
+        buffer.asLongBuffer().put(exploded);
+        buffer.position(buffer.position() + (exploded.length * Long.BYTES));
+
+        buffer.putInt(enemyPhaseDelay);
+        buffer.putInt(inventory.length);
+        buffer.asIntBuffer().put(player);
+        buffer.position(buffer.position() + CHARACTER_SIZE);
+        buffer.put(inventory);
+
+        buffer.putInt(nbBombs);
+        buffer.put(bombs, 0, nbBombs * BOMB_SIZE);
+
+        buffer.putInt(enemies.length / ENEMY_FIELDS);
+        buffer.asIntBuffer().put(enemies);
+        buffer.position(buffer.position() + (enemies.length * Integer.BYTES));
+
+        buffer.putInt(explosionCells.length);
+        for (int i = 0; i < explosionCells.length; i++) {
+            buffer.putInt(explosionDelays[i]);
+            buffer.putInt(explosionCells[i].length);
+            buffer.asIntBuffer().put(explosionCells[i]);
+            buffer.position(buffer.position() + (explosionCells[i].length * Integer.BYTES));
+        }
+
+        return buffer.flip();
+    }
+
+    /**
+     * Décode une sauvegarde écrite au format binaire.
+     *
+     * @param buffer Le tampon contenant la sauvegarde.
+     *
+     * @return La copie de la partie sauvegardée.
+     *
+     * @throws IOException Si le tampon ne contient pas une sauvegarde valide.
+     */
+    public static GameSnapshot decode(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Ce fichier n'est pas une sauvegarde de partie");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Version de sauvegarde non prise en charge : " + version);
+            }
+
+            int height = buffer.getInt();
+            int width = buffer.getInt();
+            double brickRatio = buffer.getDouble();
+            int enemyCount = buffer.getInt();
+            long seed = buffer.getLong();
+            long tick = buffer.getLong();
+            boolean gameEnded = buffer.get() != 0;
+            GameConfiguration configuration = new GameConfiguration(
+                    height, width, brickRatio, enemyCount);
+
+            byte[] contents = new byte[height * width];
+            buffer.get(contents);
+            int nbContents = TileContent.values().length;
+            for (byte ordinal : contents) {
+                if ((ordinal < -1) || (ordinal >= nbContents)) {
+                    throw new IOException("Contenu de tuile invalide : " + ordinal);
+                }
+            }
+            long[] exploded = new long[(contents.length + 63) >>> 6];
+            buffer.asLongBuffer().get(exploded);
+            buffer.position(buffer.position() + (exploded.length * Long.BYTES));
+
+            int enemyPhaseDelay = buffer.getInt();
+            GameSnapshot snapshot = new GameSnapshot(
+                    configuration, seed, tick, gameEnded, contents, exploded);
+            snapshot.enemyPhaseDelay = enemyPhaseDelay;
+
+            snapshot.inventory = new byte[readCount(buffer, 1)];
+            snapshot.player = new int[CHARACTER_SIZE / Integer.BYTES];
+            buffer.asIntBuffer().get(snapshot.player);
+            buffer.position(buffer.position() + CHARACTER_SIZE);
+            buffer.get(snapshot.inventory);
+            checkPosition(configuration, snapshot.player[0], snapshot.player[1]);
+            for (byte type : snapshot.inventory) {
+                checkBombType(type);
+            }
+
+            snapshot.nbBombs = readCount(buffer, BOMB_SIZE);
+            snapshot.bombs = new byte[snapshot.nbBombs * BOMB_SIZE];
+            buffer.get(snapshot.bombs);
+            ByteBuffer bombs = ByteBuffer.wrap(snapshot.bombs);
+            for (int i = 0; i < snapshot.nbBombs; i++) {
+                checkBombType(bombs.get());
+                checkPosition(configuration, bombs.getInt(), bombs.getInt());
+                bombs.getInt();
+            }
+
+            snapshot.enemies = new int[readCount(buffer, ENEMY_FIELDS * Integer.BYTES) * ENEMY_FIELDS];
+            buffer.asIntBuffer().get(snapshot.enemies);
+            buffer.position(buffer.position() + (snapshot.enemies.length * Integer.BYTES));
+            for (int j = 0; j < snapshot.enemies.length; j += ENEMY_FIELDS) {
+                checkPosition(configuration, snapshot.enemies[j + 1], snapshot.enemies[j + 2]);
+            }
+
+            int nbExplosions = readCount(buffer, 2 * Integer.BYTES);
+            snapshot.explosionDelays = new int[nbExplosions];
+            snapshot.explosionCells = new int[nbExplosions][];
+            for (int i = 0; i < nbExplosions; i++) {
+                snapshot.explosionDelays[i] = buffer.getInt();
+                snapshot.explosionCells[i] = new int[readCount(buffer, Integer.BYTES)];
+                buffer.asIntBuffer().get(snapshot.explosionCells[i]);
+                buffer.position(buffer.position()
+                        + (snapshot.explosionCells[i].length * Integer.BYTES));
+                for (int cell : snapshot.explosionCells[i]) {
+                    if ((cell < 0) || (cell >= contents.length)) {
+                        throw new IOException("Tuile d'explosion hors de la carte : " + cell);
+                    }
+                }
+            }
+            return snapshot;
+
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Sauvegarde de partie invalide", e);
+        }
+    }
+
+    /**
+     * Vérifie qu'une position lue dans une sauvegarde se trouve sur la carte.
+     *
+     * @param configuration La configuration de la partie sauvegardée.
+     * @param row La ligne lue.
+     * @param column La colonne lue.
+     *
+     * @throws IOException Si la position est en dehors de la carte.
+     */
+    private static void checkPosition(GameConfiguration configuration, int row, int column)
+            throws IOException {
+        if ((row < 0) || (row >= configuration.getHeight())
+                || (column < 0) || (column >= configuration.getWidth())) {
+            throw new IOException("Position hors de la carte : (" + row + ", " + column + ")");
+        }
+    }
+
+    /**
+     * Vérifie qu'un code de type de bombe lu dans une sauvegarde est connu.
+     *
+     * @param type Le code lu.
+     *
+     * @throws IOException Si le code ne correspond à aucun type de bombe.
+     */
+    private static void checkBombType(byte type) throws IOException {
+        if ((type < 0) || (type >= BOMB_TYPES.length)) {
+            throw new IOException("Type de bombe inconnu : " + type);
+        }
+    }
+
+    /**
+     * Lit un nombre d'enregistrements, en vérifiant que le tampon est assez grand pour
+     * les contenir.
+     *
+     * @param buffer Le tampon dans lequel lire.
+     * @param recordSize La taille minimale (en octets) d'un enregistrement.
+     *
+     * @return Le nombre d'enregistrements lu.
+     *
+     * @throws IOException Si le nombre lu est invalide.
+     */
+    private static int readCount(ByteBuffer buffer, int recordSize) throws IOException {
+        int count = buffer.getInt();
+        if ((count < 0) || (((long) count * recordSize) > buffer.remaining())) {
+            throw new IOException("Sauvegarde de partie tronquée");
+        }
+        return count;
+    }
+
+    /**
+     * Écrit cette copie dans un fichier.
+     * La sauvegarde est d'abord écrite dans un fichier temporaire, qui remplace ensuite le
+     * fichier visé : une sauvegarde interrompue ne peut donc pas écraser la précédente.
+     *
+     * @param path Le chemin du fichier à écrire.
+     *
+     * @throws IOException Si une erreur se produit lors de l'écriture du fichier.
+     */
+    public void write(Path path) throws IOException {
+        ByteBuffer buffer = encode();
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Lit une sauvegarde depuis un fichier.
+     *
+     * @param path Le chemin du fichier à lire.
+     *
+     * @return La copie de la partie sauvegardée.
+     *
+     * @throws IOException Si le fichier ne peut pas être lu, ou s'il ne contient pas une
+     *         sauvegarde valide.
+     */
+    public static GameSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Sauvegarde de partie trop volumineuse : " + path);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && (channel.read(buffer) >= 0)) {
+                // La lecture se poursuit jusqu'à la fin du fichier.
+            }
+            return decode(buffer.flip());
+        }
+    }
+
+}
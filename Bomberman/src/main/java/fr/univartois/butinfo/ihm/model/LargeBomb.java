@@ -69,14 +69,13 @@ public class LargeBomb extends AbstractBomb {
     /*
      * (non-Javadoc)
      *
-     * @see fr.univartois.butinfo.ihm.bomberman.model.AbstractBomb#explode()
+     * @see fr.univartois.butinfo.ihm.bomberman.model.AbstractBomb#fillBlast(fr.univartois.butinfo.ihm.bomberman.model.Blast)
      */
     @Override
-    public void explode() {
-        exploded.set(true);
+    public void fillBlast(Blast blast) {
         for (int i = -2; i <= 2; i++) {
             for (int j = -2; j <= 2; j++) {
-                game.explode(row + i, column + j);
+                blast.add(row + i, column + j);
             }
         }
     }
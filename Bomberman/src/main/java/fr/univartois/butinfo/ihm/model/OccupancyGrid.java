@@ -0,0 +1,291 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * La classe OccupancyGrid indique, pour chaque tuile de la carte, les personnages qui s'y
+ * trouvent et si une bombe y a été déposée.
+ * Elle permet de savoir en temps constant si une tuile est libre, sans avoir à parcourir
+ * la liste des personnages ou des bombes de la partie.
+ *
+ * Chaque personnage enregistré reçoit un identifiant entier.
+ * Les personnages d'une même tuile sont chaînés entre eux par ces identifiants, de sorte
+ * que la grille ne stocke que des tableaux d'entiers.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class OccupancyGrid {
+
+    /**
+     * La valeur indiquant l'absence de personnage.
+     */
+    private static final int NONE = -1;
+
+    /**
+     * Le nombre de lignes de la grille.
+     */
+    private final int height;
+
+    /**
+     * Le nombre de colonnes de la grille.
+     */
+    private final int width;
+
+    /**
+     * Pour chaque tuile (rangées ligne par ligne), l'identifiant du premier personnage qui
+     * s'y trouve.
+     */
+    private final int[] firstOccupant;
+
+    /**
+     * Pour chaque personnage, l'identifiant du personnage suivant sur la même tuile.
+     */
+    private int[] nextOccupant = new int[16];
+
+    /**
+     * Les personnages enregistrés, indexés par leur identifiant.
+     */
+    private AbstractCharacter[] characters = new AbstractCharacter[16];
+
+    /**
+     * Le nombre d'identifiants déjà attribués.
+     */
+    private int nbIds;
+
+    /**
+     * Le masque de bits indiquant les tuiles sur lesquelles une bombe a été déposée.
+     */
+    private final long[] bombs;
+
+    /**
+     * Crée une nouvelle instance de OccupancyGrid.
+     *
+     * @param height Le nombre de lignes de la grille.
+     * @param width Le nombre de colonnes de la grille.
+     */
+    public OccupancyGrid(int height, int width) {
+        this.height = height;
+        this.width = width;
+        this.firstOccupant = new int[height * width];
+        Arrays.fill(firstOccupant, NONE);
+        this.bombs = new long[((height * width) + 63) >>> 6];
+    }
+
+    /**
+     * Estime la mémoire occupée par cette grille (en octets).
+     *
+     * @return Une estimation de la mémoire occupée.
+     */
+    long heapBytes() {
+        return 16 + (16 + (4L * firstOccupant.length)) + (16 + (4L * nextOccupant.length))
+                + (16 + (4L * characters.length)) + (16 + (8L * bombs.length));
+    }
+
+    /**
+     * Donne l'indice d'une tuile dans les tableaux de cette grille.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return L'indice de la tuile.
+     */
+    private int indexOf(int row, int column) {
+        return (row * width) + column;
+    }
+
+    /**
+     * Vérifie si une position se trouve sur cette grille.
+     *
+     * @param row L'indice de ligne à vérifier.
+     * @param column L'indice de colonne à vérifier.
+     *
+     * @return Si la position se trouve bien sur la grille.
+     */
+    private boolean isOnGrid(int row, int column) {
+        return (0 <= row) && (row < height) && (0 <= column) && (column < width);
+    }
+
+    /**
+     * Enregistre un personnage sur la tuile où il se trouve actuellement.
+     * Ses déplacements ultérieurs sont ensuite suivis automatiquement.
+     *
+     * @param character Le personnage à enregistrer.
+     */
+    public void add(AbstractCharacter character) {
+        if (character.occupancy != null) {
+            character.occupancy.remove(character);
+        }
+
+        if (nbIds == characters.length) {
+            characters = Arrays.copyOf(characters, nbIds * 2);
+            nextOccupant = Arrays.copyOf(nextOccupant, nbIds * 2);
+        }
+        int id = nbIds++;
+        characters[id] = character;
+        character.occupancy = this;
+        character.occupantId = id;
+        link(id, character.getRow(), character.getColumn());
+    }
+
+    /**
+     * Retire un personnage de cette grille, par exemple lorsqu'il meurt.
+     *
+     * @param character Le personnage à retirer.
+     */
+    public void remove(AbstractCharacter character) {
+        if (character.occupancy != this) {
+            return;
+        }
+        int id = character.occupantId;
+        unlink(id, character.getRow(), character.getColumn());
+        characters[id] = null;
+        character.occupancy = null;
+        character.occupantId = NONE;
+    }
+
+    /**
+     * Met à jour la grille après le déplacement d'un personnage.
+     *
+     * @param character Le personnage qui s'est déplacé.
+     * @param fromRow La ligne qu'occupait le personnage.
+     * @param fromColumn La colonne qu'occupait le personnage.
+     */
+    void moved(AbstractCharacter character, int fromRow, int fromColumn) {
+        int id = character.occupantId;
+        unlink(id, fromRow, fromColumn);
+        link(id, character.getRow(), character.getColumn());
+    }
+
+    /**
+     * Ajoute un personnage en tête de la chaîne d'une tuile.
+     *
+     * @param id L'identifiant du personnage.
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     */
+    private void link(int id, int row, int column) {
+        if (!isOnGrid(row, column)) {
+            nextOccupant[id] = NONE;
+            return;
+        }
+        int index = indexOf(row, column);
+        nextOccupant[id] = firstOccupant[index];
+        firstOccupant[index] = id;
+    }
+
+    /**
+     * Retire un personnage de la chaîne d'une tuile.
+     *
+     * @param id L'identifiant du personnage.
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     */
+    private void unlink(int id, int row, int column) {
+        if (!isOnGrid(row, column)) {
+            return;
+        }
+        int index = indexOf(row, column);
+        if (firstOccupant[index] == id) {
+            firstOccupant[index] = nextOccupant[id];
+            return;
+        }
+        for (int other = firstOccupant[index]; other != NONE; other = nextOccupant[other]) {
+            if (nextOccupant[other] == id) {
+                nextOccupant[other] = nextOccupant[id];
+                return;
+            }
+        }
+    }
+
+    /**
+     * Vérifie si une tuile est occupée par un personnage.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     * @param excluded Un personnage à ignorer (peut être {@code null}).
+     *
+     * @return Si un personnage autre que celui ignoré se trouve sur la tuile.
+     */
+    public boolean isOccupiedByCharacter(int row, int column, AbstractCharacter excluded) {
+        if (!isOnGrid(row, column)) {
+            return false;
+        }
+        for (int id = firstOccupant[indexOf(row, column)]; id != NONE; id = nextOccupant[id]) {
+            if (characters[id] != excluded) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ajoute à une liste les personnages se trouvant sur une tuile.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     * @param result La liste dans laquelle ajouter les personnages.
+     */
+    public void collectCharacters(int row, int column, List<AbstractCharacter> result) {
+        if (!isOnGrid(row, column)) {
+            return;
+        }
+        for (int id = firstOccupant[indexOf(row, column)]; id != NONE; id = nextOccupant[id]) {
+            result.add(characters[id]);
+        }
+    }
+
+    /**
+     * Vérifie si une bombe a été déposée sur une tuile.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     *
+     * @return Si une bombe se trouve sur la tuile.
+     */
+    public boolean hasBomb(int row, int column) {
+        if (!isOnGrid(row, column)) {
+            return false;
+        }
+        int index = indexOf(row, column);
+        return (bombs[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Indique si une bombe se trouve sur une tuile.
+     *
+     * @param row La ligne de la tuile.
+     * @param column La colonne de la tuile.
+     * @param bomb Si une bombe se trouve sur la tuile.
+     */
+    public void setBomb(int row, int column, boolean bomb) {
+        if (!isOnGrid(row, column)) {
+            return;
+        }
+        int index = indexOf(row, column);
+        if (bomb) {
+            bombs[index >>> 6] |= 1L << index;
+        } else {
+            bombs[index >>> 6] &= ~(1L << index);
+        }
+    }
+
+}
@@ -16,11 +16,8 @@
 
 package fr.univartois.butinfo.ihm.model;
 
-import javafx.beans.binding.IntegerBinding;
-import javafx.collections.ObservableList;
-import javafx.collections.FXCollections;
-import javafx.beans.binding.Bindings;
-import javafx.beans.property.ReadOnlyIntegerProperty;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * la classe Player représente le personnage du joueur qui utilise l'application.
@@ -34,14 +31,14 @@ public class Player extends AbstractCharacter {
     /**
      * La liste des bombes disponibles pour le joueur.
      */
-    private ObservableList<AbstractBomb> bombs;
+    private final List<AbstractBomb> bombs;
 
     /**
      * Construit un nouveau Player.
      */
     public Player() {
         super(3);
-        this.bombs = FXCollections.observableArrayList();
+        this.bombs = new ArrayList<>();
     }
 
     /*
@@ -57,9 +54,9 @@ public class Player extends AbstractCharacter {
     /**
      * Donne la liste des bombes du joueur.
      *
-     * @return La liste observable des bombes.
+     * @return La liste des bombes.
      */
-    public ObservableList<AbstractBomb> getBombs() {
+    public List<AbstractBomb> getBombs() {
         return bombs;
     }
 
@@ -75,12 +72,12 @@ public class Player extends AbstractCharacter {
     }
 
     /**
-     * Donne la propriété correspondant au nombre de bombes du joueur.
+     * Donne le nombre de bombes encore disponibles pour le joueur.
      *
-     * @return La propriété du nombre de bombes.
+     * @return Le nombre de bombes du joueur.
      */
-    public IntegerBinding bombCountProperty() {
-        return Bindings.size(bombs);
+    public int getBombCount() {
+        return bombs.size();
     }
 
     /**
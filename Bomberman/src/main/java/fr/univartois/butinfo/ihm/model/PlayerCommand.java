@@ -0,0 +1,105 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+/**
+ * L'énumération PlayerCommand énumère les commandes que le joueur peut donner pendant
+ * une partie du Bomberman.
+ * Ce sont les seules entrées d'une partie : avec la graine de la partie, elles suffisent
+ * donc à la rejouer à l'identique.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ *
+ * @see GameRecorder
+ * @see GameReplay
+ */
+public enum PlayerCommand {
+
+    /**
+     * La commande déplaçant le joueur vers le haut.
+     */
+    MOVE_UP(false),
+
+    /**
+     * La commande déplaçant le joueur vers le bas.
+     */
+    MOVE_DOWN(false),
+
+    /**
+     * La commande déplaçant le joueur vers la gauche.
+     */
+    MOVE_LEFT(false),
+
+    /**
+     * La commande déplaçant le joueur vers la droite.
+     */
+    MOVE_RIGHT(false),
+
+    /**
+     * La commande faisant déposer au joueur la première bombe de son inventaire.
+     */
+    DROP_BOMB(false),
+
+    /**
+     * La commande faisant déposer au joueur une bombe de son inventaire, désignée par son
+     * indice.
+     */
+    DROP_BOMB_BY_INDEX(true);
+
+    /**
+     * Indique si cette commande est accompagnée d'un argument entier.
+     */
+    private final boolean argument;
+
+    /**
+     * Crée une nouvelle instance de PlayerCommand.
+     *
+     * @param argument Indique si cette commande est accompagnée d'un argument entier.
+     */
+    PlayerCommand(boolean argument) {
+        this.argument = argument;
+    }
+
+    /**
+     * Indique si cette commande est accompagnée d'un argument entier.
+     *
+     * @return Si cette commande a un argument.
+     */
+    public boolean hasArgument() {
+        return argument;
+    }
+
+    /**
+     * Exécute cette commande sur une partie.
+     *
+     * @param game La façade gérant la partie.
+     * @param argument L'argument de la commande (ignoré si elle n'en a pas).
+     */
+    public void apply(GameFacade game, int argument) {
+        switch (this) {
+            case MOVE_UP -> game.movePlayerUp();
+            case MOVE_DOWN -> game.movePlayerDown();
+            case MOVE_LEFT -> game.movePlayerLeft();
+            case MOVE_RIGHT -> game.movePlayerRight();
+            case DROP_BOMB -> game.dropBomb();
+            case DROP_BOMB_BY_INDEX -> game.dropBombByIndex(argument);
+        }
+    }
+
+}
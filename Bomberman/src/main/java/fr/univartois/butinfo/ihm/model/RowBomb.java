@@ -68,13 +68,12 @@ public class RowBomb extends AbstractBomb {
     /*
      * (non-Javadoc)
      *
-     * @see fr.univartois.butinfo.ihm.bomberman.model.AbstractBomb#explode()
+     * @see fr.univartois.butinfo.ihm.bomberman.model.AbstractBomb#fillBlast(fr.univartois.butinfo.ihm.bomberman.model.Blast)
      */
     @Override
-    public void explode() {
-        exploded.set(true);
+    public void fillBlast(Blast blast) {
         for (int i = -1; i <= 1; i++) {
-            game.explode(row, column + i);
+            blast.add(row, column + i);
         }
     }
 
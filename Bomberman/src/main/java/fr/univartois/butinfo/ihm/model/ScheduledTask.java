@@ -0,0 +1,199 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+/**
+ * La classe ScheduledTask représente une action programmée dans un
+ * {@link GameScheduler}, et permet de l'annuler tant qu'elle n'a pas été exécutée.
+ * Les actions d'un même emplacement de l'ordonnanceur sont chaînées entre elles, ce qui
+ * permet de les retirer en temps constant.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public final class ScheduledTask {
+
+    /**
+     * Le pas de simulation auquel cette action doit être exécutée.
+     */
+    final long deadline;
+
+    /**
+     * L'action à exécuter.
+     */
+    final Runnable action;
+
+    /**
+     * La liste dans laquelle cette action est actuellement rangée, ou {@code null} si
+     * elle a été exécutée ou annulée.
+     */
+    TaskList list;
+
+    /**
+     * L'action précédente dans la liste.
+     */
+    ScheduledTask previous;
+
+    /**
+     * L'action suivante dans la liste.
+     */
+    ScheduledTask next;
+
+    /**
+     * Indique si cette action a été annulée.
+     */
+    private boolean cancelled;
+
+    /**
+     * Crée une nouvelle instance de ScheduledTask.
+     *
+     * @param deadline Le pas de simulation auquel l'action doit être exécutée.
+     * @param action L'action à exécuter.
+     */
+    ScheduledTask(long deadline, Runnable action) {
+        this.deadline = deadline;
+        this.action = action;
+    }
+
+    /**
+     * Donne le pas de simulation auquel cette action doit être exécutée.
+     *
+     * @return Le pas d'exécution de cette action.
+     */
+    public long getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Vérifie si cette action est toujours en attente d'exécution.
+     *
+     * @return Si cette action est en attente.
+     */
+    public boolean isPending() {
+        return list != null;
+    }
+
+    /**
+     * Vérifie si cette action a été annulée.
+     *
+     * @return Si cette action a été annulée.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Annule cette action si elle n'a pas encore été exécutée.
+     *
+     * @return Si l'action a effectivement été annulée.
+     */
+    public boolean cancel() {
+        if (list == null) {
+            return false;
+        }
+        list.remove(this);
+        cancelled = true;
+        return true;
+    }
+
+    /**
+     * La classe TaskList est une liste doublement chaînée d'actions programmées, dont
+     * les maillons sont les actions elles-mêmes.
+     */
+    static final class TaskList {
+
+        /**
+         * La première action de la liste.
+         */
+        ScheduledTask head;
+
+        /**
+         * La dernière action de la liste.
+         */
+        ScheduledTask tail;
+
+        /**
+         * Le nombre d'actions dans la liste.
+         */
+        int size;
+
+        /**
+         * Ajoute une action à la fin de cette liste.
+         *
+         * @param task L'action à ajouter.
+         */
+        void add(ScheduledTask task) {
+            task.list = this;
+            task.previous = tail;
+            task.next = null;
+            if (tail == null) {
+                head = task;
+            } else {
+                tail.next = task;
+            }
+            tail = task;
+            size++;
+        }
+
+        /**
+         * Retire une action de cette liste.
+         *
+         * @param task L'action à retirer.
+         */
+        void remove(ScheduledTask task) {
+            if (task.previous == null) {
+                head = task.next;
+            } else {
+                task.previous.next = task.next;
+            }
+            if (task.next == null) {
+                tail = task.previous;
+            } else {
+                task.next.previous = task.previous;
+            }
+            task.list = null;
+            task.previous = null;
+            task.next = null;
+            size--;
+        }
+
+        /**
+         * Retire et donne la première action de cette liste.
+         *
+         * @return La première action de la liste, ou {@code null} si elle est vide.
+         */
+        ScheduledTask poll() {
+            ScheduledTask first = head;
+            if (first != null) {
+                remove(first);
+            }
+            return first;
+        }
+
+        /**
+         * Annule toutes les actions de cette liste.
+         */
+        void cancelAll() {
+            for (ScheduledTask task = poll(); task != null; task = poll()) {
+                task.cancelled = true;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,387 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * La classe SpawnConnector relie des points d'apparition d'une carte par des tuiles vides,
+ * en détruisant aussi peu de murs de briques que possible.
+ *
+ * Les composantes connexes des tuiles vides sont d'abord calculées avec une structure
+ * {@link UnionFind}, en temps quasi linéaire : si tous les points y sont déjà reliés, la
+ * carte n'est pas modifiée.
+ *
+ * Sinon, les composantes contenant des points d'apparition sont étendues toutes à la fois
+ * par un unique parcours en largeur, où traverser une tuile vide ne coûte rien et
+ * traverser un mur de briques coûte 1 : chaque tuile est ainsi attribuée à la composante
+ * dont elle est la plus proche (en nombre de briques à détruire).
+ * Deux tuiles voisines attribuées à des composantes différentes forment un pont entre
+ * celles-ci, dont le coût est la somme de leurs distances.
+ * Les ponts les moins coûteux sont alors retenus par l'algorithme de Kruskal, tant
+ * qu'ils relient des composantes qui ne le sont pas encore, et seules les briques de leurs
+ * chemins sont détruites.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class SpawnConnector {
+
+    /**
+     * Le type des tuiles vides, que l'on peut traverser librement.
+     */
+    private static final byte EMPTY = 0;
+
+    /**
+     * Le type des tuiles portant un mur de briques, qu'il faut détruire pour les traverser.
+     */
+    private static final byte BRICK = 1;
+
+    /**
+     * Le type des tuiles portant un mur solide, que l'on ne peut pas traverser.
+     */
+    private static final byte SOLID = 2;
+
+    /**
+     * L'origine des tuiles qui n'ont pas encore été atteintes par le parcours.
+     */
+    private static final byte NOT_VISITED = -1;
+
+    /**
+     * L'origine des tuiles à partir desquelles commence le parcours.
+     */
+    private static final byte SOURCE = -2;
+
+    /**
+     * La carte à modifier.
+     */
+    private final GameMap map;
+
+    /**
+     * Le nombre de colonnes de la carte.
+     */
+    private final int width;
+
+    /**
+     * Le nombre de colonnes de {@link #tiles}, qui entoure la carte d'une bordure.
+     */
+    private final int paddedWidth;
+
+    /**
+     * Le type de chaque tuile de la carte (rangées ligne par ligne), entourée d'une
+     * bordure de murs solides : les voisines d'une tuile de la carte sont ainsi toujours
+     * dans le tableau, et le parcours n'a pas à vérifier les bords.
+     */
+    private final byte[] tiles;
+
+    /**
+     * Le décalage d'indice associé à chacune des directions (haut, bas, gauche, droite).
+     */
+    private final int[] offsets;
+
+    /**
+     * Pour chaque tuile, la direction depuis laquelle elle a été atteinte par le parcours.
+     */
+    private byte[] origins;
+
+    /**
+     * Pour chaque tuile atteinte par le parcours, le numéro de la composante à laquelle
+     * elle est attribuée.
+     */
+    private int[] owners;
+
+    /**
+     * Pour chaque tuile atteinte par le parcours, le nombre de murs de briques à détruire
+     * pour l'atteindre depuis sa composante (elle comprise).
+     */
+    private int[] distances;
+
+    /**
+     * Les indices (sur la carte) des tuiles dont le mur de briques a été détruit.
+     */
+    private int[] opened = new int[16];
+
+    /**
+     * Le nombre de murs de briques qui ont été détruits.
+     */
+    private int nbOpened;
+
+    /**
+     * Crée une nouvelle instance de SpawnConnector.
+     *
+     * @param map La carte à modifier.
+     */
+    SpawnConnector(GameMap map) {
+        this.map = map;
+        this.width = map.getWidth();
+        this.paddedWidth = width + 2;
+        this.tiles = new byte[(map.getHeight() + 2) * paddedWidth];
+        this.offsets = new int[] { -paddedWidth, paddedWidth, -1, 1 };
+        Arrays.fill(tiles, SOLID);
+
+        // Le type associé à chaque contenu de tuile, indexé par son ordinal
+        TileContent[] contents = TileContent.values();
+        byte[] types = new byte[contents.length];
+        for (TileContent content : contents) {
+            types[content.ordinal()] = content.isEmpty() ? EMPTY
+                    : (content.destroyableByExplosion ? BRICK : SOLID);
+        }
+
+        byte[] ordinals = map.copyContents();
+        for (int row = 0; row < map.getHeight(); row++) {
+            int cell = toPadded(row * width);
+            for (int column = 0; column < width; column++) {
+                byte ordinal = ordinals[(row * width) + column];
+                tiles[cell + column] = (ordinal < 0) ? EMPTY : types[ordinal];
+            }
+        }
+    }
+
+    /**
+     * Convertit l'indice d'une tuile de la carte en son indice dans {@link #tiles}.
+     *
+     * @param cell L'indice de la tuile sur la carte.
+     *
+     * @return L'indice de la tuile dans {@link #tiles}.
+     */
+    private int toPadded(int cell) {
+        return (((cell / width) + 1) * paddedWidth) + (cell % width) + 1;
+    }
+
+    /**
+     * Relie des points d'apparition par des tuiles vides.
+     *
+     * @param cells Les indices des tuiles des points d'apparition (au moins une).
+     *
+     * @return Les indices des tuiles dont le mur de briques a été détruit.
+     *
+     * @throws IllegalArgumentException Si l'un des points se trouve sur un mur solide, ou
+     *         si des murs solides empêchent de relier les points.
+     */
+    int[] connect(int... cells) {
+        // Les personnages doivent pouvoir se trouver sur les points d'apparition
+        int[] spawns = new int[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            spawns[i] = toPadded(cells[i]);
+            if (tiles[spawns[i]] == SOLID) {
+                throw new IllegalArgumentException("Point d'apparition sur un mur solide : "
+                        + (cells[i] / width) + ", " + (cells[i] % width));
+            }
+            if (tiles[spawns[i]] == BRICK) {
+                open(spawns[i]);
+            }
+        }
+
+        // Un point d'apparition est gardé pour chacune des composantes qui en contiennent
+        int[] sources = findSources(spawns);
+        if (sources.length > 1) {
+            connectSources(sources);
+        }
+        return Arrays.copyOf(opened, nbOpened);
+    }
+
+    /**
+     * Calcule les composantes connexes des tuiles vides, et donne un point d'apparition
+     * pour chacune des composantes qui en contiennent.
+     *
+     * @param spawns Les indices (dans {@link #tiles}) des points d'apparition.
+     *
+     * @return Les indices des points d'apparition retenus.
+     */
+    private int[] findSources(int[] spawns) {
+        // Les tuiles vides voisines sont réunies, en ne regardant qu'en haut et à gauche
+        UnionFind components = new UnionFind(tiles.length);
+        for (int cell = paddedWidth; cell < tiles.length; cell++) {
+            if (tiles[cell] == EMPTY) {
+                if (tiles[cell - 1] == EMPTY) {
+                    components.union(cell, cell - 1);
+                }
+                if (tiles[cell - paddedWidth] == EMPTY) {
+                    components.union(cell, cell - paddedWidth);
+                }
+            }
+        }
+
+        int[] sources = new int[spawns.length];
+        Set<Integer> roots = new HashSet<>();
+        int nbSources = 0;
+        for (int spawn : spawns) {
+            if (roots.add(components.find(spawn))) {
+                sources[nbSources++] = spawn;
+            }
+        }
+        return Arrays.copyOf(sources, nbSources);
+    }
+
+    /**
+     * Relie entre elles les composantes de plusieurs points d'apparition.
+     *
+     * @param sources Les indices des points d'apparition, chacun dans une composante
+     *        différente.
+     *
+     * @throws IllegalArgumentException Si des murs solides empêchent de relier les points.
+     */
+    private void connectSources(int[] sources) {
+        Map<Long, int[]> bridges = findBridges(sources);
+        List<int[]> sorted = new ArrayList<>(bridges.values());
+        sorted.sort(Comparator.<int[]> comparingInt(bridge -> bridge[0])
+                .thenComparingInt(bridge -> bridge[1])
+                .thenComparingInt(bridge -> bridge[2]));
+
+        UnionFind connected = new UnionFind(sources.length);
+        int nbConnected = 1;
+        for (int[] bridge : sorted) {
+            int first = owners[bridge[1]];
+            int second = owners[bridge[2]];
+            if (connected.find(first) != connected.find(second)) {
+                connected.union(first, second);
+                nbConnected++;
+                openPath(bridge[1]);
+                openPath(bridge[2]);
+            }
+        }
+
+        if (nbConnected < sources.length) {
+            throw new IllegalArgumentException("Les points d'apparition ne peuvent pas être reliés");
+        }
+    }
+
+    /**
+     * Attribue chaque tuile à la composante dont elle est la plus proche, et cherche le
+     * pont le moins coûteux entre chaque paire de composantes voisines.
+     *
+     * Le parcours utilise une file à double entrée : les tuiles vides sont ajoutées en
+     * tête (elles sont aussi proches que la tuile courante) et les murs de briques en
+     * queue, si bien que les tuiles sont visitées par distance croissante, et que chacune
+     * n'est ajoutée qu'une fois.
+     *
+     * @param sources Les indices des points d'apparition, chacun dans une composante
+     *        différente.
+     *
+     * @return Le pont le moins coûteux entre chaque paire de composantes voisines, sous la
+     *         forme de son coût et des indices de ses deux tuiles.
+     */
+    private Map<Long, int[]> findBridges(int[] sources) {
+        int[] queue = new int[tiles.length];
+        origins = new byte[tiles.length];
+        owners = new int[tiles.length];
+        distances = new int[tiles.length];
+        Arrays.fill(origins, NOT_VISITED);
+
+        int head = 0;
+        int size = 0;
+        for (int i = 0; i < sources.length; i++) {
+            origins[sources[i]] = SOURCE;
+            owners[sources[i]] = i;
+            queue[size++] = sources[i];
+        }
+
+        Map<Long, int[]> bridges = new HashMap<>();
+        while (size > 0) {
+            int cell = queue[head];
+            head = (head == (queue.length - 1)) ? 0 : (head + 1);
+            size--;
+
+            for (int direction = 0; direction < offsets.length; direction++) {
+                int next = cell + offsets[direction];
+                if (tiles[next] == SOLID) {
+                    continue;
+                }
+
+                if (origins[next] != NOT_VISITED) {
+                    // Les tuiles attribuées à deux composantes différentes forment un pont
+                    if (owners[next] != owners[cell]) {
+                        addBridge(bridges, sources.length, cell, next);
+                    }
+                    continue;
+                }
+
+                origins[next] = (byte) direction;
+                owners[next] = owners[cell];
+                distances[next] = distances[cell] + tiles[next];
+                if (tiles[next] == EMPTY) {
+                    head = (head == 0) ? (queue.length - 1) : (head - 1);
+                    queue[head] = next;
+                } else {
+                    int tail = head + size;
+                    queue[(tail < queue.length) ? tail : (tail - queue.length)] = next;
+                }
+                size++;
+            }
+        }
+        return bridges;
+    }
+
+    /**
+     * Retient un pont entre deux composantes s'il est le moins coûteux trouvé jusqu'ici.
+     *
+     * @param bridges Le pont le moins coûteux trouvé entre chaque paire de composantes.
+     * @param nbSources Le nombre de composantes.
+     * @param cell L'indice de la première tuile du pont.
+     * @param next L'indice de la seconde tuile du pont.
+     */
+    private void addBridge(Map<Long, int[]> bridges, int nbSources, int cell, int next) {
+        int first = Math.min(owners[cell], owners[next]);
+        int second = Math.max(owners[cell], owners[next]);
+        int cost = distances[cell] + distances[next];
+        int[] best = bridges.get(((long) first * nbSources) + second);
+        if ((best == null) || (cost < best[0])) {
+            bridges.put(((long) first * nbSources) + second, new int[] { cost, cell, next });
+        }
+    }
+
+    /**
+     * Détruit les murs de briques du chemin menant d'une composante à l'une des tuiles qui
+     * lui sont attribuées, en remontant depuis cette tuile.
+     *
+     * @param cell L'indice de la dernière tuile du chemin.
+     */
+    private void openPath(int cell) {
+        while (origins[cell] != SOURCE) {
+            if (tiles[cell] == BRICK) {
+                open(cell);
+            }
+            cell -= offsets[origins[cell]];
+        }
+    }
+
+    /**
+     * Détruit le mur de briques d'une tuile, sur la carte comme dans {@link #tiles}, et
+     * retient cette tuile parmi celles qui ont été ouvertes.
+     *
+     * @param cell L'indice de la tuile dans {@link #tiles}.
+     */
+    private void open(int cell) {
+        int row = (cell / paddedWidth) - 1;
+        int column = (cell % paddedWidth) - 1;
+        tiles[cell] = EMPTY;
+        map.setContent(row, column, TileContent.LAWN);
+        if (nbOpened == opened.length) {
+            opened = Arrays.copyOf(opened, 2 * nbOpened);
+        }
+        opened[nbOpened++] = (row * width) + column;
+    }
+
+}
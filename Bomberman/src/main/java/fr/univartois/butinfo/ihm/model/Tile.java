@@ -16,19 +16,14 @@
 
 package fr.univartois.butinfo.ihm.model;
 
-import javafx.beans.property.ObjectProperty;
-import javafx.beans.property.SimpleObjectProperty;
-import javafx.beans.property.BooleanProperty;
-import javafx.beans.property.SimpleBooleanProperty;
-import javafx.animation.Timeline;
-import javafx.animation.KeyFrame;
-import javafx.util.Duration;
-
 /**
  * La classe Tile représente une tuile composant la carte du jeu du Bomberman.
  * Une fois créée, une telle tuile devient fixe sur la carte : c'est son
  * contenu qui change au cours du jeu.
  *
+ * Une tuile ne stocke pas elle-même son contenu : il s'agit d'une vue sur une position
+ * de la {@link GameMap}, qui conserve l'état de toutes ses tuiles de manière compacte.
+ *
  * @author Romain Wallon
  *
  * @version 0.1.0
@@ -36,9 +31,9 @@ import javafx.util.Duration;
 public class Tile {
 
     /**
-     * La propriété indiquant si cette tuile est en train d'exploser.
+     * La carte sur laquelle se trouve cette tuile.
      */
-    private final BooleanProperty exploded = new SimpleBooleanProperty(false);
+    private final GameMap map;
 
     /**
      * La ligne où cette tuile est positionnée sur la carte.
@@ -50,18 +45,15 @@ public class Tile {
      */
     private final int column;
 
-    /**
-     * Le contenu de cette tuile.
-     */
-    private final ObjectProperty<TileContent> content = new SimpleObjectProperty<>();
-
     /**
      * Construit une nouvelle instance de Tile.
      *
+     * @param map La carte sur laquelle se trouve la tuile.
      * @param row La ligne où la tuile est positionnée sur la map.
      * @param column La colonne où la tuile est positionnée sur la map.
      */
-    public Tile(int row, int column) {
+    Tile(GameMap map, int row, int column) {
+        this.map = map;
         this.row = row;
         this.column = column;
     }
@@ -90,7 +82,7 @@ public class Tile {
      * @return Le contenu de cette tuile.
      */
     public TileContent getContent() {
-        return content.get();
+        return map.getContent(row, column);
     }
 
     /**
@@ -99,51 +91,45 @@ public class Tile {
      * @param content Le nouveau contenu de cette tuile.
      */
     public void setContent(TileContent content) {
-        this.content.set(content);
+        map.setContent(row, column, content);
     }
 
     /**
-     * Retourne la propriété content de cette tuile.
+     * Vérifie si cette tuile est vide, c'est-à-dire que son contenu est vide.
      *
-     * @return La propriété content.
+     * @return Si cette tuile est vide.
      */
-    public ObjectProperty<TileContent> contentProperty() { return content; }
+    public boolean isEmpty() {
+        return map.isEmpty(row, column);
+    }
 
     /**
-     * Vérifie si cette tuile est vide, c'est-à-dire que son contenu est vide.
+     * Vérifie si cette tuile est en train d'exploser.
      *
-     * @return Si cette tuile est vide.
+     * @return Si cette tuile est en train d'exploser.
      */
-    public boolean isEmpty() {
-        TileContent value = getContent();
-        return value == null || value.isEmpty();
+    public boolean isExploded() {
+        return map.isExploded(row, column);
     }
 
     /**
-     * Donne la propriété exploded de cette tuile.
+     * Change l'état d'explosion de cette tuile.
      *
-     * @return La propriété exploded.
+     * @param exploded Si cette tuile est en train d'exploser.
      */
-    public BooleanProperty explodedProperty() {
-        return exploded;
+    public void setExploded(boolean exploded) {
+        map.setExploded(row, column, exploded);
     }
 
     /**
      * Fait exploser cette tuile si son contenu peut être détruit.
+     * C'est la façade du jeu qui se charge de remettre la tuile dans son état normal
+     * une fois l'explosion terminée.
+     *
+     * @return Si la tuile a effectivement explosé.
      */
-    public void explode() {
-        if (getContent() != null && getContent().destroyableByExplosion) {
-            exploded.set(true);
-
-            Timeline timeline = new Timeline(new KeyFrame(
-                    Duration.seconds(3),
-                    e -> {
-                        exploded.set(false);
-                        setContent(TileContent.LAWN);
-                    }
-            ));
-            timeline.play();
-        }
+    public boolean explode() {
+        return map.explode(row, column);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.model;
+
+import java.util.Arrays;
+
+/**
+ * La classe UnionFind maintient une partition d'éléments (numérotés à partir de 0) en
+ * ensembles disjoints, que l'on peut réunir deux à deux.
+ *
+ * Les ensembles sont représentés par des arbres : la réunion par taille et la compression
+ * des chemins parcourus rendent le coût amorti des opérations quasiment constant.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class UnionFind {
+
+    /**
+     * Le parent de chaque élément dans l'arbre de son ensemble, ou l'opposé de la taille
+     * de l'ensemble pour les racines.
+     */
+    private final int[] parents;
+
+    /**
+     * Crée une nouvelle instance de UnionFind, dans laquelle chaque élément est seul dans
+     * son ensemble.
+     *
+     * @param size Le nombre d'éléments.
+     */
+    UnionFind(int size) {
+        this.parents = new int[size];
+        Arrays.fill(parents, -1);
+    }
+
+    /**
+     * Donne le représentant de l'ensemble contenant un élément.
+     *
+     * @param element L'élément à considérer.
+     *
+     * @return Le représentant de son ensemble.
+     */
+    int find(int element) {
+        int root = element;
+        while (parents[root] >= 0) {
+            root = parents[root];
+        }
+
+        // Tous les éléments parcourus sont rattachés directement à la racine
+        while (parents[element] >= 0) {
+            int next = parents[element];
+            parents[element] = root;
+            element = next;
+        }
+        return root;
+    }
+
+    /**
+     * Réunit les ensembles contenant deux éléments.
+     *
+     * @param first Le premier élément.
+     * @param second Le second élément.
+     */
+    void union(int first, int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return;
+        }
+
+        // Le plus petit ensemble est rattaché au plus grand
+        if (parents[firstRoot] > parents[secondRoot]) {
+            int root = firstRoot;
+            firstRoot = secondRoot;
+            secondRoot = root;
+        }
+        parents[firstRoot] += parents[secondRoot];
+        parents[secondRoot] = firstRoot;
+    }
+
+}
@@ -0,0 +1,218 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * La classe ClientConnection représente, côté serveur, la connexion avec l'un des
+ * clients d'une partie.
+ *
+ * Les messages destinés au client sont placés dans une file bornée, vidée au fur et à
+ * mesure que le réseau l'accepte : le serveur n'attend donc jamais un client lent.
+ * Lorsque la file est pleine, les états les plus anciens qui n'ont pas encore commencé
+ * à être envoyés sont abandonnés, puisque chaque état remplace entièrement le précédent.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class ClientConnection {
+
+    /**
+     * Le nombre maximal de messages en attente d'envoi pour un client.
+     */
+    static final int MAX_PENDING_MESSAGES = 4;
+
+    /**
+     * Le canal de communication avec le client.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * La clé associant le canal au sélecteur du serveur.
+     */
+    private final SelectionKey key;
+
+    /**
+     * Le tampon dans lequel les messages du client sont reconstitués.
+     */
+    private final ByteBuffer input = ByteBuffer.allocate(
+            16 * (Protocol.HEADER_SIZE + Protocol.MAX_CLIENT_MESSAGE));
+
+    /**
+     * Les messages en attente d'envoi au client.
+     * Le premier d'entre eux peut avoir déjà été partiellement envoyé.
+     */
+    private final ArrayDeque<ByteBuffer> output = new ArrayDeque<>();
+
+    /**
+     * Le type des messages en attente d'envoi au client.
+     */
+    private final ArrayDeque<Byte> outputTypes = new ArrayDeque<>();
+
+    /**
+     * Le nombre de messages abandonnés parce que le client ne les recevait pas assez vite.
+     */
+    private long dropped;
+
+    /**
+     * Le pas de simulation du dernier état reçu par le client, ou -1 s'il n'en a encore
+     * reçu aucun.
+     */
+    private long acknowledged = -1;
+
+    /**
+     * Crée une nouvelle instance de ClientConnection.
+     *
+     * @param channel Le canal de communication avec le client.
+     * @param key La clé associant le canal au sélecteur du serveur.
+     */
+    ClientConnection(SocketChannel channel, SelectionKey key) {
+        this.channel = channel;
+        this.key = key;
+    }
+
+    /**
+     * Donne le nombre de messages abandonnés parce que le client ne les recevait pas
+     * assez vite.
+     *
+     * @return Le nombre de messages abandonnés.
+     */
+    long getDroppedCount() {
+        return dropped;
+    }
+
+    /**
+     * Donne le pas de simulation du dernier état reçu par le client.
+     *
+     * @return Le pas du dernier état reçu, ou -1 si le client n'en a encore reçu aucun.
+     */
+    long getAcknowledgedTick() {
+        return acknowledged;
+    }
+
+    /**
+     * Lit les octets reçus du client, et donne à la partie les commandes qu'ils
+     * contiennent.
+     * Les messages indiquant le dernier état reçu sont traités directement.
+     *
+     * @param server Le serveur auquel transmettre les commandes reçues.
+     *
+     * @return Si le client est toujours connecté.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture, ou si le client
+     *         ne respecte pas le protocole.
+     */
+    boolean read(GameServer server) throws IOException {
+        int read = channel.read(input);
+        input.flip();
+        while (input.remaining() >= Protocol.HEADER_SIZE) {
+            int size = input.getInt(input.position());
+            if ((size < 1) || (size > Protocol.MAX_CLIENT_MESSAGE)) {
+                throw new IOException("Message de taille invalide : " + size);
+            }
+            if (input.remaining() < Integer.BYTES + size) {
+                break;
+            }
+
+            input.getInt();
+            byte type = input.get();
+            if ((type == Protocol.COMMAND) && (size == Protocol.COMMAND_SIZE)) {
+                server.commandReceived(this, input.get(), input.getInt());
+            } else if ((type == Protocol.ACKNOWLEDGEMENT) && (size == Protocol.ACKNOWLEDGEMENT_SIZE)) {
+                acknowledged = Math.max(acknowledged, input.getLong());
+            } else {
+                throw new IOException("Message inattendu : " + type);
+            }
+        }
+        input.compact();
+        return read >= 0;
+    }
+
+    /**
+     * Ajoute un message à la file des messages à envoyer au client.
+     * Le même tampon peut être envoyé à plusieurs clients : il n'est jamais modifié.
+     *
+     * @param type Le type du message.
+     * @param message Le message à envoyer.
+     */
+    void send(byte type, ByteBuffer message) {
+        if (output.size() >= MAX_PENDING_MESSAGES) {
+            dropOldestState();
+        }
+        output.addLast(message.duplicate());
+        outputTypes.addLast(type);
+        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * Abandonne le plus ancien état en attente d'envoi qui n'a pas encore commencé à
+     * être envoyé.
+     */
+    private void dropOldestState() {
+        Iterator<ByteBuffer> messages = output.iterator();
+        Iterator<Byte> types = outputTypes.iterator();
+        while (messages.hasNext()) {
+            ByteBuffer message = messages.next();
+            byte type = types.next();
+            if ((type == Protocol.STATE) && (message.position() == 0)) {
+                messages.remove();
+                types.remove();
+                dropped++;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Envoie au client autant de messages en attente que le réseau en accepte.
+     *
+     * @throws IOException Si une erreur se produit lors de l'envoi.
+     */
+    void write() throws IOException {
+        while (!output.isEmpty()) {
+            ByteBuffer message = output.peekFirst();
+            channel.write(message);
+            if (message.hasRemaining()) {
+                // Le tampon d'envoi du système est plein : on réessaiera plus tard
+                return;
+            }
+            output.removeFirst();
+            outputTypes.removeFirst();
+        }
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+    }
+
+    /**
+     * Ferme la connexion avec le client.
+     */
+    void close() {
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // La connexion est abandonnée de toute façon
+        }
+    }
+
+}
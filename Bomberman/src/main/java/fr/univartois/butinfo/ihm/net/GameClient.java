@@ -0,0 +1,183 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import fr.univartois.butinfo.ihm.model.DeltaDecoder;
+import fr.univartois.butinfo.ihm.model.GameSnapshot;
+import fr.univartois.butinfo.ihm.model.PlayerCommand;
+
+/**
+ * La classe GameClient permet de participer à une partie hébergée par un
+ * {@link GameServer}.
+ *
+ * Le client envoie au serveur les commandes du joueur, et reçoit en retour l'état de la
+ * partie après chaque pas de simulation.
+ * Ces états étant pour la plupart des différences avec le précédent, le client signale au
+ * serveur chaque état reçu.
+ * Il ne simule rien lui-même : une interface graphique peut donc afficher une partie
+ * distante exactement comme une partie locale, à partir des états reçus.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class GameClient implements AutoCloseable {
+
+    /**
+     * Le canal de communication avec le serveur.
+     */
+    private final SocketChannel channel;
+
+    /**
+     * Le tampon dans lequel l'en-tête des messages du serveur est lu.
+     */
+    private final ByteBuffer header = ByteBuffer.allocate(Protocol.HEADER_SIZE);
+
+    /**
+     * Le décodeur reconstituant les états de la partie à partir des messages reçus.
+     */
+    private final DeltaDecoder decoder = new DeltaDecoder();
+
+    /**
+     * Indique si ce client contrôle le joueur.
+     */
+    private boolean player;
+
+    /**
+     * Crée une nouvelle instance de GameClient, connectée à un serveur.
+     *
+     * @param host Le nom de la machine hébergeant le serveur.
+     * @param port Le port du serveur.
+     *
+     * @throws IOException Si la connexion au serveur échoue.
+     */
+    public GameClient(String host, int port) throws IOException {
+        this.channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.socket().setTcpNoDelay(true);
+    }
+
+    /**
+     * Indique si ce client contrôle le joueur, d'après le dernier message reçu du serveur
+     * à ce sujet.
+     * Les commandes envoyées par un spectateur sont ignorées par le serveur.
+     *
+     * @return Si ce client contrôle le joueur.
+     */
+    public boolean isPlayer() {
+        return player;
+    }
+
+    /**
+     * Envoie une commande du joueur au serveur.
+     * Elle sera exécutée au prochain pas de simulation de la partie.
+     *
+     * @param command La commande à envoyer.
+     * @param argument L'argument de la commande (ignoré si elle n'en a pas).
+     *
+     * @throws IOException Si une erreur se produit lors de l'envoi.
+     */
+    public void send(PlayerCommand command, int argument) throws IOException {
+        write(Protocol.command(command, argument));
+    }
+
+    /**
+     * Envoie un message au serveur.
+     *
+     * @param message Le message à envoyer.
+     *
+     * @throws IOException Si une erreur se produit lors de l'envoi.
+     */
+    private void write(ByteBuffer message) throws IOException {
+        while (message.hasRemaining()) {
+            channel.write(message);
+        }
+    }
+
+    /**
+     * Attend le prochain état de la partie envoyé par le serveur.
+     * L'état précédemment reçu ne doit plus être utilisé une fois que cette méthode a été
+     * appelée (voir {@link DeltaDecoder}).
+     *
+     * @return L'état de la partie, ou {@code null} si le serveur a fermé la connexion.
+     *
+     * @throws IOException Si une erreur se produit lors de la réception, ou si le serveur
+     *         ne respecte pas le protocole.
+     */
+    public GameSnapshot receive() throws IOException {
+        while (true) {
+            header.clear();
+            if (!readFully(header)) {
+                return null;
+            }
+            int size = header.getInt(0);
+            byte type = header.get(Integer.BYTES);
+            if ((size < 1) || (size > Protocol.MAX_SERVER_MESSAGE)) {
+                throw new IOException("Message de taille invalide : " + size);
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(size - 1);
+            if (!readFully(payload)) {
+                return null;
+            }
+            payload.flip();
+
+            if (type == Protocol.WELCOME) {
+                player = payload.get() != 0;
+            } else if (type == Protocol.STATE) {
+                GameSnapshot state = decoder.decode(payload);
+                write(Protocol.acknowledgement(state.getTick()));
+                return state;
+            } else {
+                throw new IOException("Message inattendu : " + type);
+            }
+        }
+    }
+
+    /**
+     * Lit des octets envoyés par le serveur jusqu'à remplir un tampon.
+     *
+     * @param buffer Le tampon à remplir.
+     *
+     * @return Si le tampon a été rempli, ou si le serveur a fermé la connexion avant.
+     *
+     * @throws IOException Si une erreur se produit lors de la lecture.
+     */
+    private boolean readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ferme la connexion avec le serveur.
+     *
+     * @throws IOException Si une erreur se produit lors de la fermeture.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
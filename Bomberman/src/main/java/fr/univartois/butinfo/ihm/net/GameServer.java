@@ -0,0 +1,378 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.net;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import fr.univartois.butinfo.ihm.model.DeltaEncoder;
+import fr.univartois.butinfo.ihm.model.GameFacade;
+import fr.univartois.butinfo.ihm.model.PlayerCommand;
+
+/**
+ * La classe GameServer héberge une partie du Bomberman à laquelle des clients distants
+ * se connectent.
+ *
+ * Le serveur fait autorité : lui seul fait avancer la partie, au rythme de
+ * {@link GameFacade#TICKS_PER_SECOND} pas par seconde.
+ * Les commandes reçues des clients sont mises en attente, puis exécutées dans leur ordre
+ * d'arrivée juste avant le pas suivant, et l'état de la partie est diffusé à tous les
+ * clients après chaque pas.
+ * Chaque client reçoit seulement les changements survenus depuis le dernier état qu'il a
+ * signalé avoir reçu (voir {@link DeltaEncoder}).
+ *
+ * Toutes les connexions sont gérées par un unique fil d'exécution, qui est aussi celui
+ * de la partie : les canaux sont non bloquants, et un client lent ne peut donc jamais
+ * ralentir la partie ni les autres clients.
+ * Le premier client connecté contrôle le joueur, les suivants sont spectateurs ; si le
+ * client contrôlant le joueur se déconnecte, le plus ancien spectateur en prend le
+ * contrôle.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class GameServer implements Runnable, AutoCloseable {
+
+    /**
+     * La durée d'un pas de simulation (en nanosecondes).
+     */
+    private static final long TICK_DURATION = 1_000_000_000L / GameFacade.TICKS_PER_SECOND;
+
+    /**
+     * Les commandes du joueur, indexées par leur numéro.
+     */
+    private static final PlayerCommand[] COMMANDS = PlayerCommand.values();
+
+    /**
+     * La partie hébergée par ce serveur.
+     */
+    private final GameFacade game;
+
+    /**
+     * L'encodeur des états de la partie diffusés aux clients.
+     */
+    private final DeltaEncoder encoder;
+
+    /**
+     * Les messages contenant l'état de la partie au pas courant, indexés par l'état de
+     * référence à partir duquel ils ont été encodés.
+     */
+    private final Map<Long, ByteBuffer> stateMessages = new HashMap<>();
+
+    /**
+     * Le sélecteur surveillant les canaux de ce serveur.
+     */
+    private final Selector selector;
+
+    /**
+     * Le canal sur lequel les clients se connectent.
+     */
+    private final ServerSocketChannel serverChannel;
+
+    /**
+     * Les connexions avec les clients, dans leur ordre d'arrivée.
+     */
+    private final List<ClientConnection> clients = new ArrayList<>();
+
+    /**
+     * Les commandes en attente d'exécution, sous la forme de couples (numéro, argument).
+     */
+    private int[] pendingCommands = new int[32];
+
+    /**
+     * Le nombre d'entiers utilisés dans {@link #pendingCommands}.
+     */
+    private int nbPending;
+
+    /**
+     * Indique si l'état final de la partie a déjà été diffusé.
+     */
+    private boolean finalStateSent;
+
+    /**
+     * Indique si ce serveur doit continuer à fonctionner.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Crée une nouvelle instance de GameServer.
+     * La partie doit avoir été démarrée, et ne doit plus être manipulée qu'au travers de
+     * ce serveur.
+     *
+     * @param game La partie à héberger.
+     * @param port Le port sur lequel les clients se connectent (0 pour en choisir un
+     *        libre).
+     *
+     * @throws IOException Si le serveur ne peut pas être ouvert sur ce port.
+     */
+    public GameServer(GameFacade game, int port) throws IOException {
+        this.game = game;
+        this.encoder = new DeltaEncoder(game);
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    /**
+     * Donne le port sur lequel les clients se connectent à ce serveur.
+     *
+     * @return Le port du serveur.
+     *
+     * @throws IOException Si le serveur a été fermé.
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Donne la partie hébergée par ce serveur.
+     *
+     * @return La partie hébergée.
+     */
+    public GameFacade getGame() {
+        return game;
+    }
+
+    /**
+     * Lance ce serveur sur un nouveau fil d'exécution.
+     *
+     * @return Le fil d'exécution du serveur.
+     */
+    public Thread start() {
+        Thread thread = new Thread(this, "bomberman-server");
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Fait fonctionner ce serveur jusqu'à ce qu'il soit fermé.
+     */
+    @Override
+    public void run() {
+        try {
+            long nextTick = System.nanoTime() + TICK_DURATION;
+            while (running) {
+                long wait = nextTick - System.nanoTime();
+                if (wait >= 1_000_000) {
+                    selector.select(wait / 1_000_000);
+                } else {
+                    selector.selectNow();
+                }
+                handleSelectedKeys();
+
+                long now = System.nanoTime();
+                if (now >= nextTick) {
+                    if (!step()) {
+                        break;
+                    }
+                    // Après un retard important, on ne cherche pas à rattraper les pas perdus
+                    nextTick = Math.max(nextTick + TICK_DURATION, now);
+                }
+            }
+
+        } catch (IOException e) {
+            System.err.println("Arrêt du serveur : " + e.getMessage());
+
+        } finally {
+            for (ClientConnection client : clients) {
+                client.close();
+            }
+            clients.clear();
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+                // Le serveur est arrêté de toute façon
+            }
+        }
+    }
+
+    /**
+     * Traite les événements survenus sur les canaux de ce serveur.
+     *
+     * @throws IOException Si une erreur se produit sur le canal de connexion.
+     */
+    private void handleSelectedKeys() throws IOException {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+
+            if (key.isAcceptable()) {
+                accept();
+                continue;
+            }
+
+            ClientConnection client = (ClientConnection) key.attachment();
+            try {
+                if (key.isReadable() && !client.read(this)) {
+                    disconnect(client);
+                    continue;
+                }
+                if (key.isValid() && key.isWritable()) {
+                    client.write();
+                }
+            } catch (IOException e) {
+                disconnect(client);
+            }
+        }
+    }
+
+    /**
+     * Accepte les clients qui se connectent à ce serveur.
+     *
+     * @throws IOException Si une erreur se produit sur le canal de connexion.
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            ClientConnection client = new ClientConnection(channel, key);
+            key.attach(client);
+            clients.add(client);
+
+            boolean player = clients.size() == 1;
+            client.send(Protocol.WELCOME, Protocol.message(Protocol.WELCOME,
+                    ByteBuffer.wrap(new byte[] { (byte) (player ? 1 : 0) })));
+            if (finalStateSent) {
+                client.send(Protocol.STATE, Protocol.message(
+                        Protocol.STATE, encoder.encodeKeyframe()));
+            }
+        }
+    }
+
+    /**
+     * Ferme la connexion avec un client.
+     * Si ce client contrôlait le joueur, le plus ancien des spectateurs en prend le
+     * contrôle.
+     *
+     * @param client Le client à déconnecter.
+     */
+    private void disconnect(ClientConnection client) {
+        client.close();
+        int index = clients.indexOf(client);
+        clients.remove(index);
+        if ((index == 0) && !clients.isEmpty()) {
+            clients.get(0).send(Protocol.WELCOME, Protocol.message(Protocol.WELCOME,
+                    ByteBuffer.wrap(new byte[] { 1 })));
+        }
+    }
+
+    /**
+     * Reçoit une commande envoyée par un client.
+     * Elle n'est exécutée qu'au prochain pas de simulation, et seulement si ce client
+     * contrôle le joueur.
+     *
+     * @param client Le client ayant envoyé la commande.
+     * @param ordinal Le numéro de la commande.
+     * @param argument L'argument de la commande.
+     *
+     * @throws IOException Si la commande n'existe pas.
+     */
+    void commandReceived(ClientConnection client, int ordinal, int argument)
+            throws IOException {
+        if ((ordinal < 0) || (ordinal >= COMMANDS.length)) {
+            throw new IOException("Commande inconnue : " + ordinal);
+        }
+        if (clients.get(0) != client) {
+            return;
+        }
+        if (nbPending + 2 > pendingCommands.length) {
+            pendingCommands = Arrays.copyOf(pendingCommands, pendingCommands.length * 2);
+        }
+        pendingCommands[nbPending++] = ordinal;
+        pendingCommands[nbPending++] = argument;
+    }
+
+    /**
+     * Exécute les commandes en attente, fait avancer la partie d'un pas, puis diffuse son
+     * nouvel état à tous les clients.
+     * Si la partie est déjà terminée, son état complet est diffusé une dernière fois.
+     *
+     * @return Si le pas s'est déroulé normalement, ou {@code false} si une erreur s'est
+     *         produite dans la partie, qui ne peut alors plus être hébergée.
+     */
+    private boolean step() {
+        if (finalStateSent) {
+            nbPending = 0;
+            return true;
+        }
+
+        try {
+            for (int i = 0; i < nbPending; i += 2) {
+                COMMANDS[pendingCommands[i]].apply(game, pendingCommands[i + 1]);
+            }
+            nbPending = 0;
+            if (game.isGameEnded()) {
+                // Aucun pas n'a lieu : l'état complet remplace les différences
+                ByteBuffer state = Protocol.message(Protocol.STATE, encoder.encodeKeyframe());
+                for (ClientConnection client : clients) {
+                    client.send(Protocol.STATE, state);
+                }
+                finalStateSent = true;
+                return true;
+            }
+
+            game.tick();
+            encoder.capture();
+
+            // Les clients ayant reçu le même état partagent le même message
+            for (ClientConnection client : clients) {
+                ByteBuffer state = stateMessages.computeIfAbsent(client.getAcknowledgedTick(),
+                        base -> Protocol.message(Protocol.STATE, encoder.encode(base)));
+                client.send(Protocol.STATE, state);
+            }
+            finalStateSent = game.isGameEnded();
+            return true;
+
+        } catch (RuntimeException e) {
+            System.err.println("Erreur dans la partie hébergée, arrêt du serveur : " + e);
+            e.printStackTrace();
+            return false;
+
+        } finally {
+            stateMessages.clear();
+        }
+    }
+
+    /**
+     * Arrête ce serveur et ferme toutes ses connexions.
+     * La partie hébergée n'est pas arrêtée.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+    }
+
+}
@@ -0,0 +1,144 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.net;
+
+import java.nio.ByteBuffer;
+
+import fr.univartois.butinfo.ihm.model.PlayerCommand;
+
+/**
+ * La classe Protocol définit le format des messages échangés entre le serveur de jeu
+ * et ses clients.
+ *
+ * Chaque message est précédé de sa taille (sur 4 octets, sans compter celle-ci) et de
+ * son type (sur 1 octet), ce qui permet de le reconstituer quelle que soit la manière
+ * dont il a été découpé par le réseau.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+final class Protocol {
+
+    /**
+     * La taille de l'en-tête d'un message, qui contient sa taille et son type.
+     */
+    static final int HEADER_SIZE = Integer.BYTES + 1;
+
+    /**
+     * Le type des messages envoyés par un client pour donner une commande au joueur.
+     * Ils contiennent le numéro de la commande (sur 1 octet) et son argument (sur 4
+     * octets).
+     */
+    static final byte COMMAND = 1;
+
+    /**
+     * Le type du message envoyé par le serveur à un client qui vient de se connecter.
+     * Il indique (sur 1 octet) si le client contrôle le joueur ou s'il est spectateur.
+     */
+    static final byte WELCOME = 2;
+
+    /**
+     * Le type des messages envoyés par le serveur après chaque pas de simulation.
+     * Ils contiennent l'état de la partie, encodé par un
+     * {@link fr.univartois.butinfo.ihm.model.DeltaEncoder}.
+     */
+    static final byte STATE = 3;
+
+    /**
+     * Le type des messages envoyés par un client pour indiquer le dernier état qu'il a
+     * reçu, qui sert ensuite de référence aux différences qui lui sont envoyées.
+     * Ils contiennent le pas de simulation de cet état (sur 8 octets).
+     */
+    static final byte ACKNOWLEDGEMENT = 4;
+
+    /**
+     * La taille (type compris) d'un message donnant une commande au joueur.
+     */
+    static final int COMMAND_SIZE = 1 + 1 + Integer.BYTES;
+
+    /**
+     * La taille (type compris) d'un message indiquant le dernier état reçu.
+     */
+    static final int ACKNOWLEDGEMENT_SIZE = 1 + Long.BYTES;
+
+    /**
+     * La taille (type compris) du plus grand message qu'un client peut envoyer.
+     */
+    static final int MAX_CLIENT_MESSAGE = Math.max(COMMAND_SIZE, ACKNOWLEDGEMENT_SIZE);
+
+    /**
+     * La taille (type compris) du plus grand message que le serveur peut envoyer.
+     */
+    static final int MAX_SERVER_MESSAGE = 1 << 28;
+
+    /**
+     * Empêche d'instancier cette classe.
+     */
+    private Protocol() {
+        throw new AssertionError("No Protocol instances for you!");
+    }
+
+    /**
+     * Crée un message.
+     *
+     * @param type Le type du message.
+     * @param payload Le contenu du message, qui est entièrement consommé.
+     *
+     * @return Le tampon contenant le message, prêt à être envoyé.
+     */
+    static ByteBuffer message(byte type, ByteBuffer payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payload.remaining());
+        buffer.putInt(1 + payload.remaining());
+        buffer.put(type);
+        buffer.put(payload);
+        return buffer.flip();
+    }
+
+    /**
+     * Crée le message donnant une commande au joueur.
+     *
+     * @param command La commande à donner.
+     * @param argument L'argument de la commande (ignoré si elle n'en a pas).
+     *
+     * @return Le tampon contenant le message, prêt à être envoyé.
+     */
+    static ByteBuffer command(PlayerCommand command, int argument) {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + COMMAND_SIZE);
+        buffer.putInt(COMMAND_SIZE);
+        buffer.put(COMMAND);
+        buffer.put((byte) command.ordinal());
+        buffer.putInt(argument);
+        return buffer.flip();
+    }
+
+    /**
+     * Crée le message indiquant le dernier état reçu.
+     *
+     * @param tick Le pas de simulation de cet état.
+     *
+     * @return Le tampon contenant le message, prêt à être envoyé.
+     */
+    static ByteBuffer acknowledgement(long tick) {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + ACKNOWLEDGEMENT_SIZE);
+        buffer.putInt(ACKNOWLEDGEMENT_SIZE);
+        buffer.put(ACKNOWLEDGEMENT);
+        buffer.putLong(tick);
+        return buffer.flip();
+    }
+
+}
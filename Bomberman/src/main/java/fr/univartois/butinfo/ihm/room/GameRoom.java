@@ -0,0 +1,425 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.room;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import fr.univartois.butinfo.ihm.model.GameFacade;
+import fr.univartois.butinfo.ihm.model.PlayerCommand;
+
+/**
+ * La classe GameRoom représente une salle hébergeant une partie du Bomberman, qui avance
+ * en temps réel sur son propre fil d'exécution virtuel.
+ *
+ * La partie n'est jamais manipulée que par le fil de sa salle : les commandes du joueur et
+ * les autres accès à la partie sont mis en attente, puis exécutés juste avant le pas de
+ * simulation suivant.
+ * Les salles ne partageant aucune donnée, un même programme peut en héberger un grand
+ * nombre.
+ *
+ * Le temps de calcul de chaque salle est mesuré en chronométrant ses pas de simulation :
+ * les fils virtuels ne permettent pas de mesurer leur temps processeur.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ *
+ * @see RoomManager
+ */
+public class GameRoom {
+
+    /**
+     * La durée d'un pas de simulation (en nanosecondes).
+     */
+    private static final long TICK_DURATION = 1_000_000_000L / GameFacade.TICKS_PER_SECOND;
+
+    /**
+     * L'énumération State énumère les états possibles d'une salle.
+     */
+    public enum State {
+
+        /**
+         * La partie avance en temps réel.
+         */
+        RUNNING,
+
+        /**
+         * La partie est suspendue.
+         */
+        PAUSED,
+
+        /**
+         * La partie avance jusqu'à sa fin, sans accepter de nouvelles commandes.
+         */
+        DRAINING,
+
+        /**
+         * La salle est fermée, et sa partie arrêtée.
+         */
+        TERMINATED
+
+    }
+
+    /**
+     * L'identifiant de cette salle.
+     */
+    private final long id;
+
+    /**
+     * La partie hébergée par cette salle.
+     */
+    private final GameFacade game;
+
+    /**
+     * Les accès à la partie en attente d'exécution sur le fil de cette salle.
+     */
+    private final ConcurrentLinkedQueue<Consumer<GameFacade>> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Le verrou protégeant l'état de cette salle.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * La condition signalée lorsque l'état de cette salle change.
+     */
+    private final Condition stateChanged = lock.newCondition();
+
+    /**
+     * L'action à exécuter lorsque cette salle est fermée.
+     */
+    private final Consumer<GameRoom> onTerminated;
+
+    /**
+     * Le fil d'exécution de cette salle.
+     */
+    private Thread thread;
+
+    /**
+     * L'état de cette salle.
+     */
+    private volatile State state = State.RUNNING;
+
+    /**
+     * Le pas de simulation à partir duquel une salle qui se vide est fermée, même si sa
+     * partie n'est pas terminée.
+     */
+    private long drainDeadline = Long.MAX_VALUE;
+
+    /**
+     * Le temps passé à faire avancer la partie (en nanosecondes).
+     */
+    private volatile long cpuTime;
+
+    /**
+     * Le nombre de pas de simulation effectués par cette salle.
+     */
+    private volatile long ticks;
+
+    /**
+     * Crée une nouvelle instance de GameRoom.
+     * La partie doit avoir été démarrée.
+     *
+     * @param id L'identifiant de la salle.
+     * @param game La partie hébergée par la salle.
+     * @param onTerminated L'action à exécuter lorsque la salle est fermée.
+     */
+    GameRoom(long id, GameFacade game, Consumer<GameRoom> onTerminated) {
+        this.id = id;
+        this.game = game;
+        this.onTerminated = onTerminated;
+    }
+
+    /**
+     * Lance le fil d'exécution virtuel de cette salle.
+     */
+    void start() {
+        thread = Thread.ofVirtual().name("bomberman-room-" + id).start(this::run);
+    }
+
+    /**
+     * Donne l'identifiant de cette salle.
+     *
+     * @return L'identifiant de la salle.
+     */
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Donne l'état de cette salle.
+     *
+     * @return L'état de la salle.
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Donne le temps passé à faire avancer la partie de cette salle.
+     *
+     * @return Le temps de calcul de la salle (en nanosecondes).
+     */
+    public long getCpuTime() {
+        return cpuTime;
+    }
+
+    /**
+     * Donne le nombre de pas de simulation effectués par cette salle.
+     *
+     * @return Le nombre de pas effectués.
+     */
+    public long getTickCount() {
+        return ticks;
+    }
+
+    /**
+     * Transmet une commande au joueur de la partie.
+     * Elle est exécutée avant le prochain pas de simulation.
+     *
+     * @param command La commande à exécuter.
+     * @param argument L'argument de la commande (ignoré si elle n'en a pas).
+     *
+     * @return Si la commande a été acceptée, ce qui n'est pas le cas lorsque la salle se
+     *         vide ou est fermée.
+     */
+    public boolean submit(PlayerCommand command, int argument) {
+        State current = state;
+        if ((current == State.DRAINING) || (current == State.TERMINATED)) {
+            return false;
+        }
+        pending.add(game -> command.apply(game, argument));
+        return true;
+    }
+
+    /**
+     * Exécute un calcul sur la partie de cette salle, depuis le fil de la salle.
+     * Le calcul a lieu avant le prochain pas de simulation, ou dès que possible si la
+     * salle est suspendue.
+     *
+     * @param <T> Le type du résultat du calcul.
+     *
+     * @param function Le calcul à exécuter.
+     *
+     * @return Le résultat à venir du calcul, qui échoue si la salle est fermée avant.
+     */
+    public <T> CompletableFuture<T> call(Function<GameFacade, T> function) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        pending.add(game -> {
+            try {
+                result.complete(function.apply(game));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        lock.lock();
+        try {
+            if (state == State.TERMINATED) {
+                result.cancel(false);
+            }
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    /**
+     * Estime la mémoire occupée par la partie de cette salle.
+     *
+     * @return Le résultat à venir de l'estimation (en octets).
+     *
+     * @see GameFacade#estimateHeapBytes()
+     */
+    public CompletableFuture<Long> estimateHeapBytes() {
+        return call(GameFacade::estimateHeapBytes);
+    }
+
+    /**
+     * Suspend la partie de cette salle.
+     */
+    public void pause() {
+        changeState(State.RUNNING, State.PAUSED);
+    }
+
+    /**
+     * Reprend la partie de cette salle, si elle était suspendue.
+     */
+    public void resume() {
+        changeState(State.PAUSED, State.RUNNING);
+    }
+
+    /**
+     * Vide cette salle : elle n'accepte plus de commandes, et sera fermée à la fin de sa
+     * partie, ou au plus tard après un certain nombre de pas.
+     * Une salle suspendue reprend pour se vider.
+     *
+     * @param maxTicks Le nombre maximal de pas avant la fermeture de la salle.
+     */
+    public void drain(long maxTicks) {
+        lock.lock();
+        try {
+            if (state != State.TERMINATED) {
+                state = State.DRAINING;
+                drainDeadline = game.getCurrentTick() + maxTicks;
+                stateChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ferme cette salle sans attendre la fin de sa partie.
+     */
+    public void destroy() {
+        lock.lock();
+        try {
+            state = State.TERMINATED;
+            stateChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Attend la fermeture de cette salle.
+     *
+     * @param timeout Le temps d'attente maximal (en millisecondes).
+     *
+     * @return Si la salle a été fermée dans le temps imparti.
+     *
+     * @throws InterruptedException Si l'attente est interrompue.
+     */
+    public boolean awaitTermination(long timeout) throws InterruptedException {
+        return thread.join(Duration.ofMillis(timeout));
+    }
+
+    /**
+     * Fait passer cette salle d'un état à un autre, si elle est dans l'état attendu.
+     *
+     * @param expected L'état attendu.
+     * @param next Le nouvel état.
+     */
+    private void changeState(State expected, State next) {
+        lock.lock();
+        try {
+            if (state == expected) {
+                state = next;
+                stateChanged.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Fait avancer la partie de cette salle en temps réel, jusqu'à sa fermeture.
+     */
+    private void run() {
+        try {
+            long nextTick = System.nanoTime() + TICK_DURATION;
+            while (awaitNextTick(nextTick)) {
+                long start = System.nanoTime();
+                runPending();
+                if ((state != State.PAUSED) && (start >= nextTick)) {
+                    game.tick();
+                    ticks++;
+                    if (game.isGameEnded() || (game.getCurrentTick() >= drainDeadline)) {
+                        destroy();
+                    }
+                    // Après un retard important (ou une pause), on ne cherche pas à rattraper
+                    // les pas perdus
+                    nextTick = ((start - nextTick) > TICK_DURATION) ? (start + TICK_DURATION)
+                            : (nextTick + TICK_DURATION);
+                }
+                cpuTime += System.nanoTime() - start;
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+        } finally {
+            state = State.TERMINATED;
+            game.shutdown();
+            onTerminated.accept(this);
+
+            // Les derniers accès voient la partie arrêtée
+            Consumer<GameFacade> access;
+            while ((access = pending.poll()) != null) {
+                try {
+                    access.accept(game);
+                } catch (RuntimeException e) {
+                    // La partie étant arrêtée, certaines commandes ne peuvent plus s'exécuter
+                }
+            }
+        }
+    }
+
+    /**
+     * Attend le prochain pas de simulation.
+     * L'attente est interrompue plus tôt si des accès à la partie sont en attente.
+     *
+     * @param nextTick L'instant (en nanosecondes) du prochain pas.
+     *
+     * @return Si la salle doit continuer à fonctionner.
+     *
+     * @throws InterruptedException Si l'attente est interrompue.
+     */
+    private boolean awaitNextTick(long nextTick) throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                if (state == State.TERMINATED) {
+                    return false;
+                }
+                if (!pending.isEmpty()) {
+                    return true;
+                }
+                long wait = nextTick - System.nanoTime();
+                if (state == State.PAUSED) {
+                    // Le prochain pas aura lieu dès la reprise
+                    stateChanged.await();
+                } else if (wait > 0) {
+                    stateChanged.await(wait, TimeUnit.NANOSECONDS);
+                } else {
+                    return true;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Exécute les accès à la partie en attente.
+     */
+    private void runPending() {
+        Consumer<GameFacade> access;
+        while ((access = pending.poll()) != null) {
+            access.accept(game);
+        }
+    }
+
+}
@@ -0,0 +1,223 @@
+/**
+ * Ce logiciel est distribué à des fins éducatives.
+ *
+ * Il est fourni "tel quel", sans garantie d'aucune sorte, explicite
+ * ou implicite, notamment sans garantie de qualité marchande, d'adéquation
+ * à un usage particulier et d'absence de contrefaçon.
+ * En aucun cas, les auteurs ou titulaires du droit d'auteur ne seront
+ * responsables de tout dommage, réclamation ou autre responsabilité, que ce
+ * soit dans le cadre d'un contrat, d'un délit ou autre, en provenance de,
+ * consécutif à ou en relation avec le logiciel ou son utilisation, ou avec
+ * d'autres éléments du logiciel.
+ *
+ * (c) 2022-2025 Romain Wallon - Université d'Artois.
+ * Tous droits réservés.
+ */
+
+package fr.univartois.butinfo.ihm.room;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fr.univartois.butinfo.ihm.model.GameConfiguration;
+import fr.univartois.butinfo.ihm.model.GameFacade;
+
+/**
+ * La classe RoomManager gère un ensemble de salles hébergeant chacune une partie
+ * indépendante du Bomberman.
+ *
+ * Chaque salle avance sur son propre fil d'exécution virtuel (voir {@link GameRoom}) : un
+ * fil virtuel en attente du prochain pas n'occupant aucun fil du système, un même
+ * programme peut héberger des milliers de salles.
+ * Le gestionnaire tient aussi le compte du temps de calcul consommé par les salles
+ * fermées, afin de mesurer la charge totale.
+ *
+ * @author Romain Wallon
+ *
+ * @version 0.1.0
+ */
+public class RoomManager implements AutoCloseable {
+
+    /**
+     * Les salles ouvertes, indexées par leur identifiant.
+     */
+    private final Map<Long, GameRoom> rooms = new ConcurrentHashMap<>();
+
+    /**
+     * L'identifiant de la prochaine salle.
+     */
+    private final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * Le temps de calcul consommé par les salles fermées (en nanosecondes).
+     */
+    private final AtomicLong closedCpuTime = new AtomicLong();
+
+    /**
+     * Le générateur des graines des parties créées sans graine.
+     */
+    private final SplittableRandom seeds = new SplittableRandom();
+
+    /**
+     * Indique si ce gestionnaire refuse les nouvelles salles.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Ouvre une nouvelle salle, dont la graine est tirée au hasard.
+     *
+     * @param configuration La configuration de la partie de la salle.
+     *
+     * @return La salle ouverte.
+     *
+     * @throws IllegalStateException Si ce gestionnaire a été vidé ou fermé.
+     */
+    public GameRoom create(GameConfiguration configuration) {
+        long seed;
+        synchronized (seeds) {
+            seed = seeds.nextLong();
+        }
+        return create(configuration, seed);
+    }
+
+    /**
+     * Ouvre une nouvelle salle.
+     *
+     * @param configuration La configuration de la partie de la salle.
+     * @param seed La graine de la partie de la salle.
+     *
+     * @return La salle ouverte.
+     *
+     * @throws IllegalStateException Si ce gestionnaire a été vidé ou fermé.
+     */
+    public GameRoom create(GameConfiguration configuration, long seed) {
+        if (closed) {
+            throw new IllegalStateException("Le gestionnaire de salles n'accepte plus de salles");
+        }
+
+        GameFacade game = new GameFacade(configuration, seed);
+        game.startGame();
+        GameRoom room = new GameRoom(nextId.getAndIncrement(), game, this::terminated);
+        rooms.put(room.getId(), room);
+        room.start();
+        return room;
+    }
+
+    /**
+     * Retire une salle fermée de ce gestionnaire.
+     *
+     * @param room La salle fermée.
+     */
+    private void terminated(GameRoom room) {
+        rooms.remove(room.getId());
+        closedCpuTime.addAndGet(room.getCpuTime());
+    }
+
+    /**
+     * Donne la salle ayant un identifiant donné.
+     *
+     * @param id L'identifiant de la salle.
+     *
+     * @return La salle, ou {@code null} si elle n'existe pas ou a été fermée.
+     */
+    public GameRoom get(long id) {
+        return rooms.get(id);
+    }
+
+    /**
+     * Donne les salles ouvertes.
+     *
+     * @return Les salles ouvertes.
+     */
+    public Collection<GameRoom> getRooms() {
+        return List.copyOf(rooms.values());
+    }
+
+    /**
+     * Donne le nombre de salles ouvertes.
+     *
+     * @return Le nombre de salles ouvertes.
+     */
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    /**
+     * Donne le temps de calcul consommé par toutes les salles, ouvertes ou fermées.
+     *
+     * @return Le temps de calcul total (en nanosecondes).
+     */
+    public long getTotalCpuTime() {
+        long total = closedCpuTime.get();
+        for (GameRoom room : rooms.values()) {
+            total += room.getCpuTime();
+        }
+        return total;
+    }
+
+    /**
+     * Estime la mémoire occupée par les parties de toutes les salles ouvertes.
+     *
+     * @return Le résultat à venir de l'estimation (en octets).
+     */
+    public CompletableFuture<Long> estimateHeapBytes() {
+        List<CompletableFuture<Long>> estimates = new ArrayList<>();
+        for (GameRoom room : rooms.values()) {
+            // Une salle fermée entre-temps ne compte plus
+            estimates.add(room.estimateHeapBytes().exceptionally(e -> 0L));
+        }
+        return CompletableFuture.allOf(estimates.toArray(CompletableFuture[]::new))
+                .thenApply(done -> estimates.stream().mapToLong(CompletableFuture::join).sum());
+    }
+
+    /**
+     * Vide toutes les salles : plus aucune salle n'est acceptée, et chaque salle est
+     * fermée à la fin de sa partie, ou au plus tard après un certain nombre de pas.
+     *
+     * @param maxTicks Le nombre maximal de pas avant la fermeture des salles.
+     */
+    public void drain(long maxTicks) {
+        closed = true;
+        for (GameRoom room : rooms.values()) {
+            room.drain(maxTicks);
+        }
+    }
+
+    /**
+     * Attend la fermeture de toutes les salles.
+     *
+     * @param timeout Le temps d'attente maximal (en millisecondes).
+     *
+     * @return Si toutes les salles ont été fermées dans le temps imparti.
+     *
+     * @throws InterruptedException Si l'attente est interrompue.
+     */
+    public boolean awaitTermination(long timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        for (GameRoom room : getRooms()) {
+            long remaining = deadline - System.currentTimeMillis();
+            if ((remaining <= 0) || !room.awaitTermination(remaining)) {
+                return rooms.isEmpty();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Ferme immédiatement toutes les salles, sans attendre la fin de leurs parties.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (GameRoom room : rooms.values()) {
+            room.destroy();
+        }
+    }
+
+}